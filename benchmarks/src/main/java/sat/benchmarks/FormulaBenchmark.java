@@ -0,0 +1,91 @@
+package sat.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.Assignment;
+import sat.Formula;
+import sat.util.Randomizer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FormulaBenchmark {
+	// The primitives of Formula evaluating a whole assignment or a single letter.
+	@Param({"100", "1000", "10000"})
+	int numberOfLetters;
+
+	@Param({"3.0", "4.26", "6.0"})
+	double ratio;
+
+	@Param({"scalar", "vector"})
+	String kernel;
+
+	Formula formula;
+	Assignment solution;
+	int[] letters;
+	int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Randomizer random = new Randomizer(RandomFormulas.SEED);
+		this.formula = RandomFormulas.create(this.numberOfLetters, this.ratio, random);
+		this.formula.setKernel(this.kernel);
+		this.solution = this.formula.getRandomAssignment(random);
+		// Cycle through the letters in a random order, so that the branch predictor
+		// can't learn the letters and the values of the single-letter primitives.
+		this.letters = new int[this.numberOfLetters];
+		for (int i = 0; i < this.numberOfLetters; i++) {
+			this.letters[i] = i + 1;
+		}
+		random.shuffle(this.letters);
+	}
+
+	private int nextLetter() {
+		int letter = this.letters[this.next];
+		this.next = this.next + 1 == this.letters.length? 0 : this.next + 1;
+		return letter;
+	}
+
+	@Benchmark
+	public int getNumberOfSatisfied() {
+		return this.formula.getNumberOfSatisfied(this.solution);
+	}
+
+	@Benchmark
+	public int calculateBreak() {
+		return this.formula.calculateBreak(this.solution, this.nextLetter());
+	}
+
+	@Benchmark
+	public int calculateMake() {
+		return this.formula.calculateMake(this.solution, this.nextLetter());
+	}
+
+	@Benchmark
+	public int calculateGain() {
+		return this.formula.calculateGain(this.solution, this.nextLetter());
+	}
+
+	@Benchmark
+	public List<Integer> getIndicesOfUnsatisfiedClauses() {
+		return this.formula.getIndicesOfUnsatisfiedClauses(this.solution);
+	}
+
+}
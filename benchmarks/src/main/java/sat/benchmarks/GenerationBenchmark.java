@@ -0,0 +1,109 @@
+package sat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.Formula;
+import sat.heuristics.Flip;
+import sat.heuristics.Heuristic;
+import sat.heuristics.StochasticLocalSearch;
+import sat.heuristics.WalkSAT;
+import sat.metaheuristics.GeneticAlgorithm;
+import sat.metaheuristics.PlusReplacement;
+import sat.metaheuristics.SteadyStateReplacement;
+import sat.util.Randomizer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerationBenchmark {
+	// One generation of the genetic algorithm with the default parameters of Starter:
+	// selection, crossover, mutation, the heuristic, evaluation and replacement.
+	@Param({"none", "flip", "walksat", "sls"})
+	String heuristicName;
+
+	@Param({"100", "1000"})
+	int numberOfLetters;
+
+	@Param({"4.26"})
+	double ratio;
+
+	@Param({"10"})
+	int populationSize;
+
+	@Param({"7"})
+	int numberOfCrossovers;
+
+	@Param({"generational"})
+	String replacement;
+
+	BenchmarkedAlgorithm algorithm;
+
+	static class BenchmarkedAlgorithm extends GeneticAlgorithm {
+		// Exposes the steps of solve, so that the generations can be run one at a time.
+		private int generation;
+
+		BenchmarkedAlgorithm(int populationSize, int numberOfCrossovers) {
+			super(populationSize, 0.1, 0.1, numberOfCrossovers, Integer.MAX_VALUE);
+		}
+
+		void initialize(Formula formula) {
+			this.formula = formula;
+			this.prepare();
+			this.startTime = System.nanoTime();
+			this.initializePopulation();
+			this.evaluate(this.population);
+			this.applyHeuristic(this.population);
+			this.evaluate(this.population);
+		}
+
+		void generation() {
+			this.iteration(++this.generation);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Randomizer random = new Randomizer(RandomFormulas.SEED);
+		Formula formula = RandomFormulas.create(this.numberOfLetters, this.ratio, random);
+		Heuristic heuristic = null;
+		if (this.heuristicName.equals("flip")) {
+			heuristic = new Flip();
+		} else if (this.heuristicName.equals("walksat")) {
+			heuristic = new WalkSAT(10, 0.5);
+		} else if (this.heuristicName.equals("sls")) {
+			heuristic = new StochasticLocalSearch(10, 1, 0);
+		}
+		this.algorithm = new BenchmarkedAlgorithm(this.populationSize, this.numberOfCrossovers);
+		this.algorithm.setHeuristic(heuristic);
+		if (this.replacement.equals("steady")) {
+			this.algorithm.setReplacementPolicy(new SteadyStateReplacement());
+		} else if (this.replacement.equals("plus")) {
+			this.algorithm.setReplacementPolicy(new PlusReplacement());
+		}
+		this.algorithm.setSeed(random.getLong());
+		this.algorithm.initialize(formula);
+	}
+
+	@Benchmark
+	public double iteration() {
+		this.algorithm.generation();
+		return this.algorithm.getBestFoundValue();
+	}
+
+}
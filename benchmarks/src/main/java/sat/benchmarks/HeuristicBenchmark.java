@@ -0,0 +1,77 @@
+package sat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.Assignment;
+import sat.Formula;
+import sat.heuristics.Flip;
+import sat.heuristics.Heuristic;
+import sat.heuristics.StochasticLocalSearch;
+import sat.heuristics.WalkSAT;
+import sat.util.Randomizer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBenchmark {
+	// One call of improve on the same random assignment, with the parameters used by Starter
+	// (10 steps, Cb = 1, epsilon = 0, q = 0.5) unless numberOfSteps is overridden.
+	@Param({"flip", "walksat", "sls"})
+	String heuristicName;
+
+	@Param({"100", "1000", "10000"})
+	int numberOfLetters;
+
+	@Param({"3.0", "4.26", "6.0"})
+	double ratio;
+
+	@Param({"10"})
+	int numberOfSteps;
+
+	Formula formula;
+	Assignment initialSolution;
+	Assignment solution;
+	Heuristic heuristic;
+	Randomizer random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Randomizer random = new Randomizer(RandomFormulas.SEED);
+		this.formula = RandomFormulas.create(this.numberOfLetters, this.ratio, random);
+		this.initialSolution = this.formula.getRandomAssignment(random);
+		this.solution = this.initialSolution.copy();
+		this.random = random.split();
+		if (this.heuristicName.equals("flip")) {
+			this.heuristic = new Flip();
+		} else if (this.heuristicName.equals("walksat")) {
+			this.heuristic = new WalkSAT(this.numberOfSteps, 0.5);
+		} else {
+			this.heuristic = new StochasticLocalSearch(this.numberOfSteps, 1, 0);
+		}
+	}
+
+	@Benchmark
+	public Assignment improve() {
+		// The solution is improved in place, so every call starts from a copy of the same one.
+		this.solution.copyFrom(this.initialSolution);
+		this.heuristic.improve(this.solution, this.formula, this.random);
+		return this.solution;
+	}
+
+}
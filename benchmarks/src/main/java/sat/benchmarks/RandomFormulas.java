@@ -0,0 +1,21 @@
+package sat.benchmarks;
+
+import sat.Formula;
+import sat.util.Randomizer;
+
+final class RandomFormulas {
+	// The inputs of the benchmarks: random 3-SAT formulas generated from a fixed seed,
+	// so that every run of a benchmark measures the same formula and assignment.
+	static final long SEED = 20240229L;
+	static final int CLAUSE_LENGTH = 3;
+
+	private RandomFormulas() {
+	}
+
+	static Formula create(int numberOfLetters, double ratio, Randomizer random) {
+		// The ratio is the number of clauses per letter (about 4.26 for the hardest instances).
+		int numberOfClauses = (int) Math.round(ratio * numberOfLetters);
+		return Formula.getRandomFormula(numberOfLetters, numberOfClauses, CLAUSE_LENGTH, random);
+	}
+
+}
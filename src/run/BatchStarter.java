@@ -0,0 +1,257 @@
+package run;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import sat.Formula;
+import sat.metaheuristics.GeneticAlgorithm;
+
+public class BatchStarter {
+	// This class runs the configured algorithm on every instance of a directory
+	// (or of a glob pattern) with every seed of a range, within a single JVM.
+	// Each formula is read once and shared by all of its runs, which are executed
+	// by a fixed number of workers. The results are written as CSV or JSON lines
+	// in the order in which the runs complete.
+	//
+	// The batch is described by its own switches:
+	// --instances dirOrGlob --seeds from-to --workers n --output file --format {csv, jsonl}
+	// and all the other switches configure the algorithm as in Starter.
+	private static final String[] COLUMNS = {
+		"instance", "seed", "bestFoundValue", "firstIterationOfBFS", "timeOfBFS", "iterations", "duration", "flips",
+		"cacheHits", "cacheMisses", "stoppedBy"
+	};
+
+	private Configuration configuration;
+	private List<Path> instances;
+	private long firstSeed = 1;
+	private long lastSeed = 1;
+	private int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+	private String outputFilepath = "-";
+	private String format = "csv";
+
+	private Writer output;
+	private int numberOfFailures;
+
+	public static void main(String[] args) {
+		try {
+			BatchStarter batch = new BatchStarter(args);
+			batch.run();
+		} catch (Exception e) {
+			e.printStackTrace(System.out);
+		}
+	}
+
+	public BatchStarter(String[] args) throws IOException {
+		// Separate the switches of the batch from those of the algorithm.
+		String instancesPattern = "";
+		List<String> algorithmArgs = new ArrayList<>();
+		for (int i = 0; i < args.length; i+=2) {
+			String arg = args[i];
+			String value = args[i+1];
+			switch (arg) {
+			case "--instances":
+				// A directory or a glob pattern such as instances/uf50-*.cnf
+				instancesPattern = value;
+				break;
+			case "--seeds":
+				// A single seed or an inclusive range such as 1-100.
+				int dash = value.indexOf('-', 1);
+				this.firstSeed = Long.parseLong(dash < 0? value : value.substring(0, dash));
+				this.lastSeed = dash < 0? this.firstSeed : Long.parseLong(value.substring(dash + 1));
+				break;
+			case "--workers":
+				// The number of runs executed at the same time.
+				this.numberOfWorkers = Integer.parseInt(value);
+				break;
+			case "--output":
+				// The file receiving the results (- for the standard output).
+				this.outputFilepath = value;
+				break;
+			case "--format":
+				// The format of the results (csv or jsonl).
+				this.format = value;
+				break;
+			default:
+				algorithmArgs.add(arg);
+				algorithmArgs.add(value);
+			}
+		}
+		this.configuration = Configuration.parse(algorithmArgs.toArray(new String[0]));
+		this.instances = findInstances(instancesPattern);
+	}
+
+	private static List<Path> findInstances(String pattern) throws IOException {
+		// List the files of the directory, or the files matching the glob pattern
+		// in the directory of its last component, in the order of their names.
+		Path path = Paths.get(pattern);
+		Path directory;
+		String glob;
+		if (Files.isDirectory(path)) {
+			directory = path;
+			glob = "*";
+		} else {
+			directory = path.getParent() == null? Paths.get(".") : path.getParent();
+			glob = path.getFileName().toString();
+		}
+		List<Path> instances = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+			for (Path instance : stream) {
+				// Skip the binary caches stored next to the formulas.
+				if (Files.isRegularFile(instance) && !instance.toString().endsWith(".satcache")) {
+					instances.add(instance);
+				}
+			}
+		}
+		Collections.sort(instances);
+		return instances;
+	}
+
+	public void run() throws IOException, InterruptedException {
+		if (this.outputFilepath.equals("-")) {
+			this.output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		} else {
+			this.output = Files.newBufferedWriter(Paths.get(this.outputFilepath), StandardCharsets.UTF_8);
+		}
+		if (this.format.equals("csv")) {
+			this.write(String.join(",", COLUMNS));
+		}
+
+		// The formulas are read one at a time by this thread, and at most two runs
+		// per worker are queued, so only the formulas of the pending runs are kept in memory.
+		ExecutorService workers = Executors.newFixedThreadPool(this.numberOfWorkers);
+		Semaphore pending = new Semaphore(2 * this.numberOfWorkers);
+		try {
+			for (Path instance : this.instances) {
+				Formula formula;
+				try {
+					formula = this.configuration.readFormula(instance.toString());
+				} catch (IOException e) {
+					System.err.println("Cannot read " + instance + ": " + e.getMessage());
+					this.countFailure();
+					continue;
+				}
+				for (long seed = this.firstSeed; seed <= this.lastSeed; seed++) {
+					pending.acquire();
+					long runSeed = seed;
+					workers.execute(() -> {
+						try {
+							this.solve(instance, formula, runSeed);
+						} finally {
+							pending.release();
+						}
+					});
+				}
+			}
+		} finally {
+			workers.shutdown();
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			if (this.outputFilepath.equals("-")) {
+				this.output.flush();
+			} else {
+				this.output.close();
+			}
+		}
+		if (this.numberOfFailures > 0) {
+			System.err.println(this.numberOfFailures + " runs failed.");
+		}
+	}
+
+	private void solve(Path instance, Formula formula, long seed) {
+		GeneticAlgorithm alg = this.configuration.createAlgorithm();
+		alg.setSeed(seed);
+		try {
+			alg.solve(formula);
+		} catch (RuntimeException e) {
+			System.err.println("The run of " + instance + " with seed " + seed + " failed: " + e);
+			this.countFailure();
+			return;
+		}
+
+		Object[] values = {
+			instance.toString(),
+			seed,
+			alg.getBestFoundValue(),
+			alg.getFirstIterationOfTheBestFound(),
+			alg.getTimeOfTheBestFoundSolution(),
+			alg.getNumberOfPerformedIterations(),
+			alg.getDuration(),
+			alg.getNumberOfFlips(),
+			alg.getNumberOfCacheHits(),
+			alg.getNumberOfCacheMisses(),
+			alg.getStoppingCriterion().toString()
+		};
+		try {
+			this.write(this.format.equals("jsonl")? toJson(values) : toCsv(values));
+		} catch (IOException e) {
+			System.err.println("Cannot write the result of " + instance + " with seed " + seed + ": " + e.getMessage());
+			this.countFailure();
+		}
+	}
+
+	private synchronized void write(String line) throws IOException {
+		// Flush every line, so that the results of the completed runs survive an interruption.
+		this.output.write(line);
+		this.output.write('\n');
+		this.output.flush();
+	}
+
+	private synchronized void countFailure() {
+		this.numberOfFailures++;
+	}
+
+	private static String format(Object value) {
+		if (value instanceof Double) {
+			return String.format(Locale.ROOT, "%.5f", value);
+		}
+		return value.toString();
+	}
+
+	private static String toCsv(Object[] values) {
+		StringBuilder line = new StringBuilder();
+		for (int k = 0; k < values.length; k++) {
+			if (k > 0) {
+				line.append(',');
+			}
+			String value = format(values[k]);
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+				// Quote the values containing separators, doubling their quotes.
+				value = "\"" + value.replace("\"", "\"\"") + "\"";
+			}
+			line.append(value);
+		}
+		return line.toString();
+	}
+
+	private static String toJson(Object[] values) {
+		StringBuilder line = new StringBuilder("{");
+		for (int k = 0; k < values.length; k++) {
+			if (k > 0) {
+				line.append(", ");
+			}
+			line.append('"').append(COLUMNS[k]).append("\": ");
+			if (values[k] instanceof String) {
+				String value = (String) values[k];
+				line.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+			} else {
+				line.append(format(values[k]));
+			}
+		}
+		return line.append('}').toString();
+	}
+
+}
@@ -0,0 +1,381 @@
+package run;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import sat.Formula;
+import sat.FormulaCache;
+import sat.Preprocessor;
+import sat.heuristics.Flip;
+import sat.heuristics.Heuristic;
+import sat.heuristics.StochasticLocalSearch;
+import sat.heuristics.WalkSAT;
+import sat.metaheuristics.ConsoleProgressSink;
+import sat.metaheuristics.GenerationalReplacement;
+import sat.metaheuristics.GeneticAlgorithm;
+import sat.metaheuristics.IslandModel;
+import sat.metaheuristics.JsonLinesProgressSink;
+import sat.metaheuristics.Placebo;
+import sat.metaheuristics.PlusReplacement;
+import sat.metaheuristics.Portfolio;
+import sat.metaheuristics.ProgressListener;
+import sat.metaheuristics.ReplacementPolicy;
+import sat.metaheuristics.SteadyStateReplacement;
+import sat.util.StoppingCriteria;
+
+public class Configuration {
+	// This class holds the parameters given on the command line
+	// and creates the algorithms and formulas they describe.
+
+	// The default values for the parameters.
+	int populationSize = 10;
+	int numberOfCrossovers = 7;
+	double individualMutationProbability = 0.1;
+	double geneMutationProbability = 0.1;
+	int maximalNumberOfIterations = 20;
+	String chosenMetaheuristic = "GA";
+	String chosenHeuristic = "none";
+	int numberOfSteps = 10;
+	double Cb = 1;
+	double epsilon = 0;
+	double q = 0.5;
+	int seed = 0;
+	String formulaFilepath = "";
+	String cache = "none";
+	String kernel = "scalar";
+	String evaluation = "single";
+	String preprocessing = "none";
+	int improvementCacheSize = 0;
+	String metrics = "none";
+	int metricsInterval = 0;
+	double timeLimit = 0;
+	long flipBudget = 0;
+	long evaluationBudget = 0;
+	double targetFitness = Double.POSITIVE_INFINITY;
+	String progress = "none";
+	long progressInterval = 1000;
+	String checkpoint = "";
+	int checkpointInterval = 10;
+	boolean resume = false;
+	int numberOfThreads = 1;
+	int numberOfIslands = 4;
+	int migrationInterval = 10;
+	int numberOfMigrants = 1;
+	String topology = "ring";
+	String replacement = "generational";
+	String portfolio = "GA:walksat,GA:sls,GA:flip";
+
+	public static Configuration parse(String[] args) {
+		// Override the default values with those supplied by the command line.
+		// The command-line arguments should be specified following this format:
+		// --paramCode paramValue
+		Configuration configuration = new Configuration();
+		configuration.override(args);
+		return configuration;
+	}
+
+	public void override(String[] args) {
+		for (int i = 0; i < args.length; i+=2) {
+			String arg = args[i];
+			String value = args[i+1];
+			switch (arg) {
+			case "--Npop":
+				// The number of individuals in the population.
+				this.populationSize = Integer.parseInt(value);
+				break;
+			case "--Ncross":
+				// The number of crossovers (parent pairs).
+				this.numberOfCrossovers = Integer.parseInt(value);
+				break;
+			case "--IndMut":
+				// The probability of mutating an individual.
+				this.individualMutationProbability = Double.parseDouble(value);
+				break;
+			case "--GeneMut":
+				// The probability of mutating a gene.
+				this.geneMutationProbability = Double.parseDouble(value);
+				break;
+			case "--MNI":
+				this.maximalNumberOfIterations = Integer.parseInt(value);
+				break;
+			case "--Meta":
+				// The metaheuristic to use (GA, Placebo).
+				this.chosenMetaheuristic = value;
+				break;
+			case "--Heur":
+				// The heuristic to use (sls, walksat, or flip)
+				this.chosenHeuristic = value;
+				break;
+			case "--Nsteps":
+				// The number of steps in sls and walksat.
+				this.numberOfSteps = Integer.parseInt(value);
+				break;
+			case "--Cb":
+				// A coefficient of sls.
+				this.Cb = Double.parseDouble(value);
+				break;
+			case "--Eps":
+				// A coefficient of sls.
+				this.epsilon = Double.parseDouble(value);
+				break;
+			case "--q":
+				// A coefficient of walksat.
+				this.q = Double.parseDouble(value);
+				break;
+			case "--seed":
+				this.seed = Integer.parseInt(value);
+				break;
+			case "--instance":
+				// The path of the file containing the formula
+				// in the DIMACS format.
+				this.formulaFilepath = value;
+				break;
+			case "--cache":
+				// Where to cache the parsed formula (none, adjacent, or a directory).
+				this.cache = value;
+				break;
+			case "--kernel":
+				// The backend for evaluating the clauses (scalar or vector).
+				this.kernel = value;
+				break;
+			case "--eval":
+				// Evaluate the individuals one by one (single) or all at once (batch).
+				this.evaluation = value;
+				break;
+			case "--preprocess":
+				// How to simplify the formula before the search (none, simplify, or bve).
+				this.preprocessing = value;
+				break;
+			case "--improvementCache":
+				// The number of improved assignments remembered (0 disables the cache).
+				this.improvementCacheSize = Integer.parseInt(value);
+				break;
+			case "--metrics":
+				// Measure the phases and the work of the run (none or json).
+				this.metrics = value;
+				break;
+			case "--metricsInterval":
+				// Also print the metrics every that many generations (0 for only at the end).
+				this.metricsInterval = Integer.parseInt(value);
+				break;
+			case "--timeLimit":
+				// The number of seconds after which the search stops (0 for no limit).
+				this.timeLimit = Double.parseDouble(value);
+				break;
+			case "--flipBudget":
+				// The number of flips after which the search stops (0 for no limit).
+				this.flipBudget = Long.parseLong(value);
+				break;
+			case "--evaluationBudget":
+				// The number of fitness evaluations after which the search stops (0 for no limit).
+				this.evaluationBudget = Long.parseLong(value);
+				break;
+			case "--targetFitness":
+				// The fraction of satisfied clauses at which the search stops.
+				this.targetFitness = Double.parseDouble(value);
+				break;
+			case "--progress":
+				// Where to report the progress (none, console, or a JSON-lines file).
+				this.progress = value;
+				break;
+			case "--progressInterval":
+				// The minimal number of milliseconds between two lines on the console.
+				this.progressInterval = Long.parseLong(value);
+				break;
+			case "--checkpoint":
+				// Where to save the state of the run (GA and Placebo only).
+				this.checkpoint = value;
+				break;
+			case "--checkpointInterval":
+				// The number of generations between two checkpoints.
+				this.checkpointInterval = Integer.parseInt(value);
+				break;
+			case "--resume":
+				// Continue the run from its checkpoint, if there is one.
+				this.resume = Boolean.parseBoolean(value);
+				break;
+			case "--threads":
+				// The number of threads applying the heuristic and evaluating individuals.
+				this.numberOfThreads = Integer.parseInt(value);
+				break;
+			case "--islands":
+				// The number of islands in the island model.
+				this.numberOfIslands = Integer.parseInt(value);
+				break;
+			case "--migrationInterval":
+				// The number of generations between two migrations.
+				this.migrationInterval = Integer.parseInt(value);
+				break;
+			case "--migrants":
+				// The number of individuals each island sends to its neighbours.
+				this.numberOfMigrants = Integer.parseInt(value);
+				break;
+			case "--topology":
+				// How the islands are connected (ring or full).
+				this.topology = value;
+				break;
+			case "--replacement":
+				// How the next population is chosen (generational, steady, plus).
+				this.replacement = value;
+				break;
+			case "--portfolio":
+				// The comma-separated Meta:Heur pairs run by the portfolio.
+				this.portfolio = value;
+				break;
+			default:
+				System.out.println(arg + " is an unknown argument and will be ignored.");
+				break;
+			}
+		}
+	}
+
+	public Formula readFormula() throws IOException {
+		return this.readFormula(this.formulaFilepath);
+	}
+
+	public StoppingCriteria createStoppingCriteria() {
+		StoppingCriteria criteria = new StoppingCriteria();
+		criteria.setTimeLimit(this.timeLimit);
+		criteria.setFlipBudget(this.flipBudget);
+		criteria.setEvaluationBudget(this.evaluationBudget);
+		criteria.setTargetFitness(this.targetFitness);
+		return criteria;
+	}
+
+	public ProgressListener createProgressListener() throws IOException {
+		// The listener of the progress, or null if it isn't reported.
+		if (this.progress.equals("none")) {
+			return null;
+		}
+		if (this.progress.equals("console")) {
+			return new ConsoleProgressSink(this.progressInterval);
+		}
+		return new JsonLinesProgressSink(Paths.get(this.progress), true);
+	}
+
+	public Preprocessor createPreprocessor() {
+		// The preprocessing of the formula, or null if it isn't simplified.
+		if (this.preprocessing.equals("none")) {
+			return null;
+		}
+		Preprocessor preprocessor = new Preprocessor();
+		preprocessor.setVariableElimination(this.preprocessing.equals("bve"));
+		return preprocessor;
+	}
+
+	public Formula readFormula(String formulaFilepath) throws IOException {
+		// Read the formula, possibly through the binary cache.
+		Formula formula;
+		if (this.cache.equals("none")) {
+			formula = Formula.read(formulaFilepath);
+		} else if (this.cache.equals("adjacent")) {
+			formula = FormulaCache.read(formulaFilepath, null);
+		} else {
+			formula = FormulaCache.read(formulaFilepath, this.cache);
+		}
+		formula.setKernel(this.kernel);
+		return formula;
+	}
+
+	public boolean metricsEnabled() {
+		return this.metrics.equals("json");
+	}
+
+	public GeneticAlgorithm createAlgorithm() {
+		// Instantiate the metaheuristic (M) and heuristic (H).
+		GeneticAlgorithm alg;
+		if (this.chosenMetaheuristic.equals("Portfolio")) {
+			// Each member of the portfolio is given as Meta:Heur.
+			List<GeneticAlgorithm> members = new ArrayList<>();
+			for (String member : this.portfolio.split(",")) {
+				String[] parts = member.split(":");
+				members.add(this.createAlgorithm(parts[0], parts.length > 1? parts[1] : "none"));
+			}
+			alg = new Portfolio(members);
+			alg.setMetricsEnabled(this.metricsEnabled());
+		} else {
+			alg = this.createAlgorithm(this.chosenMetaheuristic, this.chosenHeuristic);
+			if (!this.checkpoint.isEmpty() && !this.chosenMetaheuristic.equals("Island")) {
+				alg.setCheckpointPath(Paths.get(this.checkpoint));
+				alg.setCheckpointInterval(this.checkpointInterval);
+				alg.setResume(this.resume);
+			}
+		}
+		alg.setSeed(this.seed);
+		return alg;
+	}
+
+	private GeneticAlgorithm createAlgorithm(String metaheuristic, String heuristic) {
+		GeneticAlgorithm alg;
+		if (metaheuristic.equals("Island")) {
+			IslandModel islandModel = new IslandModel(
+					this.populationSize,
+					this.individualMutationProbability,
+					this.geneMutationProbability,
+					this.numberOfCrossovers,
+					this.maximalNumberOfIterations,
+					this.numberOfIslands,
+					this.migrationInterval,
+					this.numberOfMigrants,
+					this.topology.equals("full")? IslandModel.Topology.FULL : IslandModel.Topology.RING);
+			// The islands use the listed heuristics in turn, each its own instance.
+			String[] names = heuristic.split(",");
+			Heuristic[] heuristics = new Heuristic[this.numberOfIslands];
+			for (int i = 0; i < this.numberOfIslands; i++) {
+				heuristics[i] = this.createHeuristic(names[i % names.length]);
+			}
+			islandModel.setHeuristics(heuristics);
+			alg = islandModel;
+		} else {
+			if (metaheuristic.equals("GA")) {
+				alg = new GeneticAlgorithm(
+						this.populationSize,
+						this.individualMutationProbability,
+						this.geneMutationProbability,
+						this.numberOfCrossovers,
+						this.maximalNumberOfIterations);
+			} else {
+				alg = new Placebo(
+						this.populationSize,
+						this.numberOfCrossovers,
+						this.maximalNumberOfIterations);
+			}
+			alg.setHeuristic(this.createHeuristic(heuristic));
+		}
+		alg.setReplacementPolicy(this.createReplacementPolicy(this.replacement));
+		alg.setBatchEvaluation(this.evaluation.equals("batch"));
+		alg.setImprovementCacheSize(this.improvementCacheSize);
+		alg.setStoppingCriteria(this.createStoppingCriteria());
+		alg.setMetricsEnabled(this.metricsEnabled());
+		alg.setMetricsInterval(this.metricsInterval);
+		alg.setNumberOfThreads(this.numberOfThreads);
+		return alg;
+	}
+
+	public ReplacementPolicy createReplacementPolicy(String name) {
+		// Instantiate the replacement policy with the given name (generational, steady, or plus).
+		if (name.equals("steady")) {
+			return new SteadyStateReplacement();
+		} else if (name.equals("plus")) {
+			return new PlusReplacement();
+		} else {
+			return new GenerationalReplacement();
+		}
+	}
+
+	public Heuristic createHeuristic(String name) {
+		// Instantiate the heuristic with the given name (sls, walksat, flip, or none).
+		if (name.equals("walksat")) {
+			return new WalkSAT(this.numberOfSteps, this.q);
+		} else if (name.equals("sls")) {
+			return new StochasticLocalSearch(this.numberOfSteps, this.Cb, this.epsilon);
+		} else  if (name.equals("flip")) {
+			return new Flip();
+		} else{
+			return null;
+		}
+	}
+
+}
@@ -1,140 +1,72 @@
 package run;
 
 
+import sat.Assignment;
 import sat.Formula;
-import sat.heuristics.Flip;
-import sat.heuristics.Heuristic;
-import sat.heuristics.StochasticLocalSearch;
-import sat.heuristics.WalkSAT;
+import sat.Preprocessor;
 import sat.metaheuristics.GeneticAlgorithm;
-import sat.metaheuristics.Placebo;
-import sat.util.Randomizer;
+import sat.metaheuristics.ProgressListener;
+import sat.util.CancellationToken;
 
 public class Starter {
 
 	public static void main(String[] args) {
-		// The default values for the parameters.
-		int populationSize = 10;
-		int numberOfCrossovers = 7;
-		double individualMutationProbability = 0.1;
-		double geneMutationProbability = 0.1;
-		int maximalNumberOfIterations = 20;
-		String chosenMetaheuristic = "GA";
-		String chosenHeuristic = "none";
-		int numberOfSteps = 10;
-		double Cb = 1;
-		double epsilon = 0;
-		double q = 0.5;
-		int seed = 0;
-		String formulaFilepath = "";
+		// Read the parameters from the command line.
+		Configuration configuration = Configuration.parse(args);
 		
-		// Overriding the default values with those 
-		// supplied by the command line.
-		// The command-line arguments should be specified following this format:
-		// --paramCode paramValue
-		for (int i = 0; i < args.length; i+=2) {
-			String arg = args[i];
-			String value = args[i+1];
-			switch (arg) {
-			case "--Npop":
-				// The number of individuals in the population.
-				populationSize = Integer.parseInt(value);
-				break;
-			case "--Ncross":
-				// The number of crossovers (parent pairs).
-				numberOfCrossovers = Integer.parseInt(value);
-				break;
-			case "--IndMut":
-				// The probability of mutating an individual.
-				individualMutationProbability = Double.parseDouble(value);
-				break;
-			case "--GeneMut":
-				// The probability of mutating a gene.
-				geneMutationProbability = Double.parseDouble(value);
-				break;
-			case "--MNI":
-				maximalNumberOfIterations = Integer.parseInt(value);
-				break;
-			case "--Meta":
-				// The metaheuristic to use (GA, Placebo).
-				chosenMetaheuristic = value;
-				break;
-			case "--Heur":
-				// The heuristic to use (sls, walksat, or flip)
-				chosenHeuristic = value;
-				break;
-			case "--Nsteps":
-				// The number of steps in sls and walksat.
-				numberOfSteps = Integer.parseInt(value);
-				break;
-			case "--Cb":
-				// A coefficient of sls.
-				Cb = Double.parseDouble(value);
-				break;
-			case "--Eps":
-				// A coefficient of sls.
-				epsilon = Double.parseDouble(value);
-				break;
-			case "--q":
-				// A coefficient of walksat.
-				q = Double.parseDouble(value);
-				break;
-			case "--seed":
-				seed = Integer.parseInt(value);
-				break;
-			case "--instance":
-				// The path of the file containing the formula
-				// in the DIMACS format.
-				formulaFilepath = value;
-				break;
-			default:
-				System.out.println(arg + " is an unknown argument and will be ignored.");
-				break;
-			}
-		}
-		
-		// Initialize the random-number generator.
-		if (seed == 0) {
-			seed = (int) (Math.random() * Integer.MAX_VALUE);
+		// Choose the seed of the random-number generators.
+		if (configuration.seed == 0) {
+			configuration.seed = (int) (Math.random() * Integer.MAX_VALUE);
 		}
-		Randomizer.initialize(seed);
 		
 		// Instantiate the metaheuristic (M) and heuristic (H).
-		GeneticAlgorithm alg;
-		Heuristic heuristic;
-		if (chosenMetaheuristic.equals("GA")) {
-			alg = new GeneticAlgorithm(
-					populationSize,
-					individualMutationProbability,
-					geneMutationProbability,
-					numberOfCrossovers,
-					maximalNumberOfIterations);
-		} else {
-			alg = new Placebo(
-					populationSize,
-					numberOfCrossovers,
-					maximalNumberOfIterations);
-		}
-		
-		if (chosenHeuristic.equals("walksat")) {
-			heuristic = new WalkSAT(numberOfSteps, q);
-		} else if (chosenHeuristic.equals("sls")) {
-			heuristic = new StochasticLocalSearch(numberOfSteps, Cb, epsilon);
-		} else  if (chosenHeuristic.equals("flip")) {
-			heuristic = new Flip();
-		} else{
-			heuristic = null;
-		}
-
-		alg.setHeuristic(heuristic);
+		GeneticAlgorithm alg = configuration.createAlgorithm();
 		
 		try {
 			// Run the M[H] algorithm on the given formula.
-			Formula formula = Formula.read(formulaFilepath);
+			Formula formula = configuration.readFormula();
+			
+			// Simplify the formula, and search for a solution of the reduced one,
+			// unless the preprocessing already decided the formula.
+			Preprocessor preprocessor = configuration.createPreprocessor();
+			if (preprocessor != null) {
+				Formula reduced = preprocessor.preprocess(formula);
+				System.out.println(preprocessor.report());
+				if (reduced == null) {
+					System.out.println("The formula is unsatisfiable.");
+					return;
+				}
+				if (reduced.getNumberOfClauses() == 0) {
+					System.out.println("The formula is satisfied by: " + preprocessor.reconstruct(new Assignment(0)));
+					return;
+				}
+				reduced.setKernel(configuration.kernel);
+				alg.setPreprocessor(preprocessor);
+				formula = reduced;
+			}
 			
+			ProgressListener listener = configuration.createProgressListener();
+			if (listener != null) {
+				alg.addProgressListener(listener);
+			}
+			// Stop the search and report its result when the process is interrupted.
+			CancellationToken token = new CancellationToken();
+			alg.setCancellationToken(token);
+			Thread main = Thread.currentThread();
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				token.cancel();
+				try {
+					main.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
 			alg.solve(formula);
 			
 			System.out.println(alg.report());
+			if (configuration.metricsEnabled()) {
+				System.out.println(alg.reportMetrics());
+			}
 
 		} catch (Exception e) {
 			e.printStackTrace(System.out);
@@ -0,0 +1,152 @@
+package sat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class Assignment implements Cloneable {
+	// This class represents a valuation of propositional letters.
+	// The value of the letter at position i (letter i+1) is bit (i % 64)
+	// of the word i / 64, so a valuation of n letters takes n/8 bytes.
+	//
+	// The valuation also maintains its Zobrist hash: the XOR of a random
+	// 64-bit key for every true letter. Setting or flipping a letter updates
+	// it with one XOR, so equal valuations can be found in O(1).
+	private int numberOfLetters;
+	private long[] words;
+	private long hash;
+
+	public Assignment(int numberOfLetters) {
+		// All the letters are initially false.
+		this.numberOfLetters = numberOfLetters;
+		this.words = new long[(numberOfLetters + 63) >>> 6];
+	}
+
+	public Assignment(int[] solution) {
+		// Convert a valuation stored as an array of zeros and ones.
+		this(solution.length);
+		for (int i = 0; i < solution.length; i++) {
+			if (solution[i] != 0) {
+				this.words[i >>> 6] |= 1L << i;
+				this.hash ^= key(i);
+			}
+		}
+	}
+
+	public int getNumberOfLetters() {
+		return this.numberOfLetters;
+	}
+
+	public int get(int position) {
+		// Get the value (0 or 1) of the letter at the given position.
+		return (int) ((this.words[position >>> 6] >>> position) & 1L);
+	}
+
+	public void set(int position, int value) {
+		if ((value != 0) != (this.get(position) != 0)) {
+			this.flip(position);
+		}
+	}
+
+	public void flip(int position) {
+		this.words[position >>> 6] ^= 1L << position;
+		this.hash ^= key(position);
+	}
+
+	private static long key(int position) {
+		// The Zobrist key of a position, obtained by mixing it (the SplitMix64 finalizer),
+		// so that the keys of any number of letters don't have to be stored.
+		long z = (position + 1) * 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public long getHash() {
+		// The Zobrist hash of the valuation.
+		return this.hash;
+	}
+
+	public boolean satisfies(int literal) {
+		// Check if the literal is true under this valuation.
+		if (literal > 0) {
+			return ((this.words[(literal - 1) >>> 6] >>> (literal - 1)) & 1L) != 0;
+		}
+		return ((this.words[(-literal - 1) >>> 6] >>> (-literal - 1)) & 1L) == 0;
+	}
+
+	long[] getWords() {
+		return this.words;
+	}
+
+	public void writeTo(ByteBuffer buffer) {
+		// Store the words of the valuation.
+		for (long word : this.words) {
+			buffer.putLong(word);
+		}
+	}
+
+	public void readFrom(ByteBuffer buffer) {
+		// Overwrite the valuation with the words stored by writeTo, and recompute its hash.
+		this.hash = 0;
+		for (int w = 0; w < this.words.length; w++) {
+			this.words[w] = buffer.getLong();
+			long word = this.words[w];
+			while (word != 0) {
+				this.hash ^= key((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+	}
+
+	public int getNumberOfBytes() {
+		// The number of bytes written by writeTo.
+		return 8 * this.words.length;
+	}
+
+	public void copyFrom(Assignment other) {
+		// Overwrite this valuation with another one of the same size.
+		System.arraycopy(other.words, 0, this.words, 0, this.words.length);
+		this.hash = other.hash;
+	}
+
+	public Assignment copy() {
+		Assignment copy = new Assignment(this.numberOfLetters);
+		copy.copyFrom(this);
+		return copy;
+	}
+
+	@Override
+	public Assignment clone() {
+		return this.copy();
+	}
+
+	public int[] toArray() {
+		// Convert the valuation into an array of zeros and ones.
+		int[] solution = new int[this.numberOfLetters];
+		for (int i = 0; i < this.numberOfLetters; i++) {
+			solution[i] = this.get(i);
+		}
+		return solution;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof Assignment)) {
+			return false;
+		}
+		Assignment that = (Assignment) other;
+		return this.numberOfLetters == that.numberOfLetters && this.hash == that.hash && Arrays.equals(this.words, that.words);
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (this.hash ^ (this.hash >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		// Use the same format as an array of zeros and ones.
+		return Arrays.toString(this.toArray());
+	}
+
+}
@@ -0,0 +1,94 @@
+package sat;
+
+import java.util.Arrays;
+
+public class BatchEvaluator {
+	// This class evaluates a whole population of solutions in a single pass
+	// over the clauses. The population is transposed into a bit matrix with
+	// one slice per letter, where bit b of a slice is the letter's value in
+	// solution b. A clause is then evaluated for 64 solutions at once by ORing
+	// the slices of its literals (complemented for negative literals),
+	// and only the solutions falsifying it are visited to count them.
+	private Formula formula;
+	private int numberOfLanes;
+	private int numberOfLaneWords;
+	private long[] slices;
+	private long[] laneMasks;
+	private int[] numbersOfUnsatisfied;
+
+	public BatchEvaluator(Formula formula) {
+		this.formula = formula;
+	}
+
+	public void evaluate(Assignment[] solutions, int count, int[] numbersOfSatisfied) {
+		// Store the numbers of the clauses satisfied by the first count solutions.
+		this.transpose(solutions, count);
+
+		int[] literals = this.formula.getLiterals();
+		int[] clauseOffsets = this.formula.getClauseOffsets();
+		int numberOfClauses = this.formula.getNumberOfClauses();
+		int laneWords = this.numberOfLaneWords;
+		for (int i = 0; i < numberOfClauses; i++) {
+			int from = clauseOffsets[i];
+			int to = clauseOffsets[i + 1];
+			for (int w = 0; w < laneWords; w++) {
+				long satisfied = 0;
+				for (int k = from; k < to; k++) {
+					int literal = literals[k];
+					if (literal > 0) {
+						satisfied |= this.slices[(literal - 1) * laneWords + w];
+					} else {
+						satisfied |= ~this.slices[(-literal - 1) * laneWords + w];
+					}
+				}
+				// Count the clause for the solutions that falsify it.
+				long unsatisfied = ~satisfied & this.laneMasks[w];
+				while (unsatisfied != 0) {
+					int lane = Long.numberOfTrailingZeros(unsatisfied);
+					this.numbersOfUnsatisfied[(w << 6) + lane]++;
+					unsatisfied &= unsatisfied - 1;
+				}
+			}
+		}
+
+		for (int b = 0; b < count; b++) {
+			numbersOfSatisfied[b] = numberOfClauses - this.numbersOfUnsatisfied[b];
+		}
+	}
+
+	private void transpose(Assignment[] solutions, int count) {
+		// Build the bit matrix, reusing the buffers when the population doesn't grow.
+		int numberOfLetters = this.formula.getNumberOfLetters();
+		int laneWords = (count + 63) >>> 6;
+		if (this.slices == null || count > this.numberOfLanes) {
+			this.slices = new long[numberOfLetters * laneWords];
+			this.laneMasks = new long[laneWords];
+			this.numbersOfUnsatisfied = new int[laneWords << 6];
+		} else {
+			Arrays.fill(this.slices, 0, numberOfLetters * laneWords, 0L);
+			Arrays.fill(this.numbersOfUnsatisfied, 0);
+		}
+		this.numberOfLanes = Math.max(this.numberOfLanes, count);
+		this.numberOfLaneWords = laneWords;
+		for (int w = 0; w < laneWords; w++) {
+			int lanes = Math.min(64, count - (w << 6));
+			this.laneMasks[w] = lanes == 64? -1L : (1L << lanes) - 1;
+		}
+
+		for (int b = 0; b < count; b++) {
+			// Scatter the true letters of solution b into bit b of their slices.
+			long[] words = solutions[b].getWords();
+			int laneWord = b >>> 6;
+			long laneBit = 1L << b;
+			for (int w = 0; w < words.length; w++) {
+				long word = words[w];
+				while (word != 0) {
+					int position = (w << 6) + Long.numberOfTrailingZeros(word);
+					this.slices[position * laneWords + laneWord] |= laneBit;
+					word &= word - 1;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+package sat;
+
+import java.lang.reflect.Constructor;
+
+public abstract class ClauseKernel {
+	// This class represents an alternative backend for counting
+	// the clauses of a formula satisfied by a solution.
+
+	public abstract int getNumberOfSatisfied(Assignment solution);
+
+	public static ClauseKernel create(Formula formula, String name) {
+		// Create the kernel with the given name (scalar or vector).
+		// Return null if the formula should be evaluated by the scalar loop,
+		// either because it was chosen or because the vector kernel isn't available.
+		if (!name.equals("vector")) {
+			return null;
+		}
+		// The vector kernel is loaded by name, since it can be linked
+		// only when the jdk.incubator.vector module is present.
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			return null;
+		}
+		try {
+			Class<?> kernelClass = Class.forName("sat.VectorClauseKernel");
+			Constructor<?> constructor = kernelClass.getDeclaredConstructor(Formula.class);
+			ClauseKernel kernel = (ClauseKernel) constructor.newInstance(formula);
+			return kernel.isApplicable()? kernel : null;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	protected boolean isApplicable() {
+		return true;
+	}
+}
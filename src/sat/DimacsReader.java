@@ -0,0 +1,242 @@
+package sat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class DimacsReader {
+	// This class reads formulas in the DIMACS CNF format.
+	// The file is read in chunks of bytes, which are tokenized by hand,
+	// and the literals are written directly into the flat arrays of the formula.
+	// Clauses can have any length, span several lines or share a line,
+	// and a comment can also follow a clause on its line.
+	// Files compressed with gzip are recognized by their first two bytes.
+	// Every clause is normalized as it is closed (see Formula): a repeated
+	// literal is kept once, and a tautology is dropped. An empty clause
+	// makes the formula unsatisfiable, so the file is rejected.
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int MAPPING_SIZE = 1 << 30;
+	// The largest letter, for which the literals still index the arrays of 2 * letter + 2 entries.
+	private static final int MAXIMAL_LETTER = Integer.MAX_VALUE / 2 - 1;
+
+	private enum State { LINE_START, LITERALS, NUMBER, COMMENT, HEADER, END }
+
+	private State state = State.LINE_START;
+	private boolean negative;
+	private int value;
+	private StringBuilder header = new StringBuilder();
+
+	private int declaredLetters;
+	private int declaredClauses;
+	private int maximalLetter;
+	private int[] literals = new int[1024];
+	private int numberOfLiterals;
+	private int[] clauseOffsets = new int[1024];
+	private int numberOfClauses;
+	// The number (from 1) of the clause read last, and the number of the clause
+	// in which each literal (at 2 * letter, or 2 * letter + 1 if negative) was last seen.
+	private int clauseNumber;
+	private int[] seen = new int[1024];
+
+	public static Formula read(String formulaFilepath) throws IOException {
+		DimacsReader reader = new DimacsReader();
+		try (FileChannel channel = FileChannel.open(Paths.get(formulaFilepath), StandardOpenOption.READ)) {
+			if (isCompressed(channel)) {
+				reader.readStream(new GZIPInputStream(Channels.newInputStream(channel), CHUNK_SIZE));
+			} else {
+				reader.readMapped(channel);
+			}
+		}
+		return reader.toFormula();
+	}
+
+	private static boolean isCompressed(FileChannel channel) throws IOException {
+		// Check for the magic number of the gzip format.
+		ByteBuffer magic = ByteBuffer.allocate(2);
+		while (magic.hasRemaining() && channel.read(magic) >= 0) {
+		}
+		channel.position(0);
+		return magic.position() == 2 && (magic.get(0) & 0xff) == 0x1f && (magic.get(1) & 0xff) == 0x8b;
+	}
+
+	private void readMapped(FileChannel channel) throws IOException {
+		// Map the file region by region and feed it to the tokenizer.
+		byte[] chunk = new byte[CHUNK_SIZE];
+		long size = channel.size();
+		for (long position = 0; position < size && this.state != State.END; position += MAPPING_SIZE) {
+			long length = Math.min(MAPPING_SIZE, size - position);
+			MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+			while (region.hasRemaining() && this.state != State.END) {
+				int n = Math.min(chunk.length, region.remaining());
+				region.get(chunk, 0, n);
+				this.consume(chunk, n);
+			}
+		}
+		this.consume(new byte[] {'\n'}, 1);
+	}
+
+	private void readStream(InputStream input) throws IOException {
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int n;
+		while (this.state != State.END && (n = input.read(chunk)) >= 0) {
+			this.consume(chunk, n);
+		}
+		this.consume(new byte[] {'\n'}, 1);
+	}
+
+	private void consume(byte[] bytes, int length) throws IOException {
+		// Run the tokenizer over the given bytes. Its state is kept in the fields,
+		// so numbers and lines can continue in the next chunk.
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			switch (this.state) {
+			case LINE_START:
+				if (b == 'c') {
+					this.state = State.COMMENT;
+				} else if (b == 'p') {
+					this.state = State.HEADER;
+				} else if (b == '%') {
+					// The end marker used by the SATLIB benchmarks.
+					this.state = State.END;
+					return;
+				} else if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+					this.state = State.LITERALS;
+					i--;
+				}
+				break;
+			case COMMENT:
+				if (b == '\n') {
+					this.state = State.LINE_START;
+				}
+				break;
+			case HEADER:
+				if (b == '\n') {
+					this.parseHeader();
+					this.state = State.LINE_START;
+				} else {
+					this.header.append((char) b);
+				}
+				break;
+			case LITERALS:
+				if (b == '-') {
+					this.negative = true;
+					this.value = 0;
+					this.state = State.NUMBER;
+				} else if (b >= '0' && b <= '9') {
+					this.negative = false;
+					this.value = b - '0';
+					this.state = State.NUMBER;
+				} else if (b == '\n') {
+					this.state = State.LINE_START;
+				} else if (b == 'c') {
+					// A comment after the clauses of the line.
+					this.state = State.COMMENT;
+				} else if (b != ' ' && b != '\t' && b != '\r') {
+					throw new IOException("Unexpected character '" + (char) b + "' in clause " + (this.numberOfClauses + 1));
+				}
+				break;
+			case NUMBER:
+				if (b >= '0' && b <= '9') {
+					if (this.value > (MAXIMAL_LETTER - (b - '0')) / 10) {
+						throw new IOException("Literal too large in clause " + (this.numberOfClauses + 1));
+					}
+					this.value = 10 * this.value + (b - '0');
+				} else {
+					this.addLiteral(this.negative? -this.value : this.value);
+					this.state = b == '\n'? State.LINE_START : State.LITERALS;
+					i--;
+				}
+				break;
+			case END:
+				return;
+			}
+		}
+	}
+
+	private void parseHeader() throws IOException {
+		// Read the numbers of the letters and clauses from the line "p cnf letters clauses".
+		String[] tokens = this.header.toString().trim().split("\\s+");
+		if (tokens.length != 3 || !tokens[0].equals("cnf")) {
+			throw new IOException("Malformed problem line: p" + this.header);
+		}
+		try {
+			this.declaredLetters = Integer.parseInt(tokens[1]);
+			this.declaredClauses = Integer.parseInt(tokens[2]);
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed problem line: p" + this.header, e);
+		}
+		if (this.declaredLetters < 0 || this.declaredClauses < 0) {
+			throw new IOException("Malformed problem line: p" + this.header);
+		}
+		this.header.setLength(0);
+		if (this.clauseOffsets.length < this.declaredClauses + 1) {
+			this.clauseOffsets = Arrays.copyOf(this.clauseOffsets, this.declaredClauses + 1);
+		}
+		if (this.literals.length < 3 * this.declaredClauses) {
+			this.literals = Arrays.copyOf(this.literals, 3 * this.declaredClauses);
+		}
+	}
+
+	private void addLiteral(int literal) throws IOException {
+		if (literal == 0) {
+			this.closeClause();
+			return;
+		}
+		if (this.numberOfLiterals == this.literals.length) {
+			this.literals = Arrays.copyOf(this.literals, 2 * this.literals.length);
+		}
+		this.literals[this.numberOfLiterals++] = literal;
+		this.maximalLetter = Math.max(this.maximalLetter, Math.abs(literal));
+	}
+
+	private void closeClause() throws IOException {
+		// Normalize the clause in place.
+		int from = this.clauseOffsets[this.numberOfClauses];
+		this.clauseNumber++;
+		if (from == this.numberOfLiterals) {
+			throw new IOException("Clause " + this.clauseNumber + " is empty, so the formula is unsatisfiable.");
+		}
+		if (this.seen.length < 2 * this.maximalLetter + 2) {
+			this.seen = Arrays.copyOf(this.seen, Math.max(2 * this.seen.length, 2 * this.maximalLetter + 2));
+		}
+		int length = from;
+		for (int k = from; k < this.numberOfLiterals; k++) {
+			int literal = this.literals[k];
+			int index = literal > 0? 2 * literal : -2 * literal + 1;
+			if (this.seen[index ^ 1] == this.clauseNumber) {
+				// The clause contains both literals of a letter, so it is always satisfied.
+				this.numberOfLiterals = from;
+				return;
+			}
+			if (this.seen[index] != this.clauseNumber) {
+				this.seen[index] = this.clauseNumber;
+				this.literals[length++] = literal;
+			}
+		}
+		this.numberOfLiterals = length;
+		if (this.numberOfClauses + 2 > this.clauseOffsets.length) {
+			this.clauseOffsets = Arrays.copyOf(this.clauseOffsets, 2 * this.clauseOffsets.length);
+		}
+		this.numberOfClauses++;
+		this.clauseOffsets[this.numberOfClauses] = this.numberOfLiterals;
+	}
+
+	private Formula toFormula() throws IOException {
+		// A clause not terminated by 0 at the end of the file is still a clause.
+		if (this.numberOfLiterals > this.clauseOffsets[this.numberOfClauses]) {
+			this.closeClause();
+		}
+		int numberOfLetters = Math.max(this.declaredLetters, this.maximalLetter);
+		int[] literals = this.literals.length == this.numberOfLiterals? this.literals : Arrays.copyOf(this.literals, this.numberOfLiterals);
+		int[] clauseOffsets = this.clauseOffsets.length == this.numberOfClauses + 1? this.clauseOffsets : Arrays.copyOf(this.clauseOffsets, this.numberOfClauses + 1);
+		return new Formula(numberOfLetters, this.numberOfClauses, literals, clauseOffsets, true);
+	}
+
+}
@@ -0,0 +1,222 @@
+package sat;
+
+import java.util.Arrays;
+
+public class Evaluator {
+	// This class keeps track of how a solution satisfies a formula while
+	// the solution is being changed one flip at a time. Instead of scanning
+	// all the clauses after every flip, it updates only the clauses
+	// containing the negated letter.
+	private Formula formula;
+	private int numberOfLetters;
+	private int numberOfClauses;
+	private int[] literals;
+	private int[] clauseOffsets;
+	private int[] occurrenceOffsets;
+	private int[] occurrences;
+	private Assignment solution;
+
+	// The number of true literals in each clause.
+	private int[] numberOfTrueLiterals;
+	// The XOR of the letters whose literals are true in each clause.
+	// When a clause has exactly one true literal, this is its letter.
+	// This, and counting each clause once in the make values, relies on
+	// the formula's clauses being normalized (no repeated letters).
+	private int[] trueLetters;
+	// The make and break values of each letter (indexed from 1).
+	private int[] makeValues;
+	private int[] breakValues;
+	// The unsatisfied clauses, stored densely in the first
+	// numberOfUnsatisfied places, and the position of each clause
+	// in that array (-1 for the satisfied clauses).
+	private int numberOfUnsatisfied;
+	private int[] unsatisfiedClauses;
+	private int[] unsatisfiedPositions;
+	private long numberOfFlips;
+
+	public Evaluator(Formula formula, Assignment solution) {
+		this.formula = formula;
+		this.numberOfLetters = formula.getNumberOfLetters();
+		this.numberOfClauses = formula.getNumberOfClauses();
+		this.literals = formula.getLiterals();
+		this.clauseOffsets = formula.getClauseOffsets();
+		this.occurrenceOffsets = formula.getOccurrenceOffsets();
+		this.occurrences = formula.getOccurrences();
+		this.solution = solution.copy();
+		this.numberOfTrueLiterals = new int[this.numberOfClauses];
+		this.trueLetters = new int[this.numberOfClauses];
+		this.makeValues = new int[this.numberOfLetters + 1];
+		this.breakValues = new int[this.numberOfLetters + 1];
+		this.unsatisfiedClauses = new int[this.numberOfClauses];
+		this.unsatisfiedPositions = new int[this.numberOfClauses];
+		this.initialize();
+	}
+
+	public void reset(Assignment solution) {
+		// Start tracking another solution of the same formula, reusing the arrays.
+		this.solution.copyFrom(solution);
+		Arrays.fill(this.makeValues, 0);
+		Arrays.fill(this.breakValues, 0);
+		this.numberOfFlips = 0;
+		this.initialize();
+	}
+
+	private void initialize() {
+		// Count the true literals in every clause and derive
+		// the make and break values from the counts.
+		this.numberOfUnsatisfied = 0;
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			int count = 0;
+			int letters = 0;
+			int from = this.clauseOffsets[i];
+			int to = this.clauseOffsets[i + 1];
+			for (int k = from; k < to; k++) {
+				int literal = this.literals[k];
+				if (this.solution.satisfies(literal)) {
+					count++;
+					letters ^= Math.abs(literal);
+				}
+			}
+			this.numberOfTrueLiterals[i] = count;
+			this.trueLetters[i] = letters;
+			this.unsatisfiedPositions[i] = -1;
+			if (count == 0) {
+				// Negating any letter of an unsatisfied clause makes it satisfied.
+				this.addToMakeValues(i, 1);
+				this.addUnsatisfied(i);
+			} else {
+				if (count == 1) {
+					// Negating the only true literal breaks the clause.
+					this.breakValues[letters]++;
+				}
+			}
+		}
+	}
+
+	public void flip(int letter) {
+		// Negate the letter and update the clauses in which it occurs.
+		int literal = this.solution.get(letter - 1) > 0? letter : (-letter);
+		this.solution.flip(letter - 1);
+		this.numberOfFlips++;
+
+		// The clauses containing the complement of the literal gain a true literal.
+		int from = this.occurrenceOffsets[-literal + this.numberOfLetters];
+		int to = this.occurrenceOffsets[-literal + this.numberOfLetters + 1];
+		for (int o = from; o < to; o++) {
+			int i = this.occurrences[o];
+			int count = ++this.numberOfTrueLiterals[i];
+			if (count == 1) {
+				// The clause has just become satisfied, so its letters
+				// no longer make it, and the flipped letter is the only one
+				// that could break it.
+				this.removeUnsatisfied(i);
+				this.addToMakeValues(i, -1);
+				this.breakValues[letter]++;
+			} else if (count == 2) {
+				// The letter that used to be critical no longer is.
+				this.breakValues[this.trueLetters[i]]--;
+			}
+			this.trueLetters[i] ^= letter;
+		}
+
+		// The clauses containing the literal lose a true literal.
+		from = this.occurrenceOffsets[literal + this.numberOfLetters];
+		to = this.occurrenceOffsets[literal + this.numberOfLetters + 1];
+		for (int o = from; o < to; o++) {
+			int i = this.occurrences[o];
+			int count = --this.numberOfTrueLiterals[i];
+			this.trueLetters[i] ^= letter;
+			if (count == 0) {
+				// The clause has just become unsatisfied.
+				this.addUnsatisfied(i);
+				this.breakValues[letter]--;
+				this.addToMakeValues(i, 1);
+			} else if (count == 1) {
+				// The remaining true literal has become critical.
+				this.breakValues[this.trueLetters[i]]++;
+			}
+		}
+	}
+
+	private void addToMakeValues(int clause, int delta) {
+		// Change the make values of all the letters in the clause.
+		for (int k = this.clauseOffsets[clause]; k < this.clauseOffsets[clause + 1]; k++) {
+			this.makeValues[Math.abs(this.literals[k])] += delta;
+		}
+	}
+
+	private void addUnsatisfied(int clause) {
+		// Append the clause to the unsatisfied ones.
+		this.unsatisfiedClauses[this.numberOfUnsatisfied] = clause;
+		this.unsatisfiedPositions[clause] = this.numberOfUnsatisfied;
+		this.numberOfUnsatisfied++;
+	}
+
+	private void removeUnsatisfied(int clause) {
+		// Move the last unsatisfied clause into the place of the removed one.
+		this.numberOfUnsatisfied--;
+		int last = this.unsatisfiedClauses[this.numberOfUnsatisfied];
+		int position = this.unsatisfiedPositions[clause];
+		this.unsatisfiedClauses[position] = last;
+		this.unsatisfiedPositions[last] = position;
+		this.unsatisfiedPositions[clause] = -1;
+	}
+
+	public int getMake(int letter) {
+		// The number of unsatisfied clauses which become satisfied after negating the letter.
+		return this.makeValues[letter];
+	}
+
+	public int getBreak(int letter) {
+		// The number of satisfied clauses which become unsatisfied after negating the letter.
+		return this.breakValues[letter];
+	}
+
+	public int getGain(int letter) {
+		// The net increase in the number of satisfied clauses after negating the letter.
+		return this.makeValues[letter] - this.breakValues[letter];
+	}
+
+	public int getNumberOfSatisfied() {
+		return this.numberOfClauses - this.numberOfUnsatisfied;
+	}
+
+	public int getNumberOfUnsatisfied() {
+		return this.numberOfUnsatisfied;
+	}
+
+	public int getUnsatisfiedClause(int k) {
+		// Get the k-th of the currently unsatisfied clauses (in no particular order).
+		return this.unsatisfiedClauses[k];
+	}
+
+	public boolean isClauseSatisfied(int clause) {
+		return this.unsatisfiedPositions[clause] < 0;
+	}
+
+	public long getNumberOfFlips() {
+		// The number of flips performed since the evaluator was created.
+		return this.numberOfFlips;
+	}
+
+	public boolean isSatisfied() {
+		return this.numberOfUnsatisfied == 0;
+	}
+
+	public int getValue(int letter) {
+		return this.solution.get(letter - 1);
+	}
+
+	public Assignment getSolution() {
+		return this.solution.copy();
+	}
+
+	public void copySolutionTo(Assignment target) {
+		target.copyFrom(this.solution);
+	}
+
+	public Formula getFormula() {
+		return this.formula;
+	}
+
+}
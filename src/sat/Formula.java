@@ -1,48 +1,158 @@
 package sat;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.Set;
+import java.util.zip.CRC32C;
 
 import sat.util.Randomizer;
 
 public class Formula {
 	// This class represents a Boolean logical formula.
+	// The clauses are stored in the compressed-sparse-row form:
+	// the literals of clause i are literals[clauseOffsets[i]], ..., literals[clauseOffsets[i+1] - 1].
+	// The indices of the clauses in which a literal l occurs are stored in the same way
+	// in occurrences, delimited by occurrenceOffsets[l + numberOfLetters]
+	// and occurrenceOffsets[l + numberOfLetters + 1].
+	// The clauses are normalized when the formula is built: a literal repeated
+	// in a clause is kept once, and the clauses containing a literal and its
+	// negation (which are always satisfied) are dropped. So every clause
+	// occurs at most once in the occurrences of a literal, and never in those
+	// of both literals of a letter, which the incremental scores rely on.
 	private int numberOfLetters;
 	private int numberOfClauses;
-	private int[][] clauses;
-	private Map<Integer, Set<Integer>> clauseMap;
+	private int[] literals;
+	private int[] clauseOffsets;
+	private int[] occurrenceOffsets;
+	private int[] occurrences;
+	// An optional backend for counting the satisfied clauses.
+	private ClauseKernel kernel;
 	
 	public Formula(int numberOfLetters, int numberOfClauses, int[][] clauses) {
 		this.numberOfLetters = numberOfLetters;
 		this.numberOfClauses = numberOfClauses;
-		this.clauses = clauses;
-		this.makeClauseMap();
+		this.storeClauses(clauses);
+		this.normalizeClauses();
+		this.makeOccurrenceIndex();
 	}
 	
-	private void makeClauseMap() {
-		// Create a map pairing each literal with clauses in which it occurs.
-		this.clauseMap  =  new HashMap<>(2*this.numberOfLetters);
+	public Formula(int numberOfLetters, int numberOfClauses, int[] literals, int[] clauseOffsets) {
+		// The clauses are given in the compressed-sparse-row form.
+		this(numberOfLetters, numberOfClauses, literals, clauseOffsets, false);
+	}
+	
+	Formula(int numberOfLetters, int numberOfClauses, int[] literals, int[] clauseOffsets, boolean normalized) {
+		// The clauses have already been normalized (e.g. by the reader).
+		this.numberOfLetters = numberOfLetters;
+		this.numberOfClauses = numberOfClauses;
+		this.literals = literals;
+		this.clauseOffsets = clauseOffsets;
+		if (!normalized) {
+			this.normalizeClauses();
+		}
+		this.makeOccurrenceIndex();
+	}
+	
+	Formula(int numberOfLetters, int numberOfClauses, int[] literals, int[] clauseOffsets,
+			int[] occurrenceOffsets, int[] occurrences) {
+		// The occurrence index has already been built (e.g. loaded from a cache).
+		this.numberOfLetters = numberOfLetters;
+		this.numberOfClauses = numberOfClauses;
+		this.literals = literals;
+		this.clauseOffsets = clauseOffsets;
+		this.occurrenceOffsets = occurrenceOffsets;
+		this.occurrences = occurrences;
+	}
+	
+	private void storeClauses(int[][] clauses) {
+		// Flatten the clauses into a single array of literals.
+		this.clauseOffsets = new int[this.numberOfClauses + 1];
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			this.clauseOffsets[i + 1] = this.clauseOffsets[i] + clauses[i].length;
+		}
+		this.literals = new int[this.clauseOffsets[this.numberOfClauses]];
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			System.arraycopy(clauses[i], 0, this.literals, this.clauseOffsets[i], clauses[i].length);
+		}
+	}
+	
+	private void normalizeClauses() {
+		// Remove the repeated literals and the tautologies. The arrays are only
+		// copied if a clause changes, so the given ones are never modified.
+		int n = this.numberOfLetters;
+		// The number (from 1) of the clause in which each literal was last seen, and kept.
+		int[] seen = new int[2 * n + 1];
+		int[] kept = new int[2 * n + 1];
+		int[] literals = null;
+		int[] clauseOffsets = null;
+		int numberOfLiterals = 0;
+		int numberOfClauses = 0;
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			int from = this.clauseOffsets[i];
+			int to = this.clauseOffsets[i + 1];
+			boolean changed = false;
+			boolean tautology = false;
+			for (int k = from; k < to; k++) {
+				int literal = this.literals[k];
+				changed |= seen[literal + n] == i + 1;
+				tautology |= seen[-literal + n] == i + 1;
+				seen[literal + n] = i + 1;
+			}
+			if (literals == null) {
+				if (!changed && !tautology) {
+					continue;
+				}
+				// The first clause to change: copy the clauses before it.
+				literals = Arrays.copyOf(this.literals, this.literals.length);
+				clauseOffsets = Arrays.copyOf(this.clauseOffsets, this.numberOfClauses + 1);
+				numberOfLiterals = from;
+				numberOfClauses = i;
+			}
+			if (tautology) {
+				continue;
+			}
+			for (int k = from; k < to; k++) {
+				int literal = this.literals[k];
+				if (kept[literal + n] != i + 1) {
+					kept[literal + n] = i + 1;
+					literals[numberOfLiterals++] = literal;
+				}
+			}
+			clauseOffsets[++numberOfClauses] = numberOfLiterals;
+		}
+		if (literals != null) {
+			this.literals = Arrays.copyOf(literals, numberOfLiterals);
+			this.clauseOffsets = Arrays.copyOf(clauseOffsets, numberOfClauses + 1);
+			this.numberOfClauses = numberOfClauses;
+		}
+	}
+	
+	private void makeOccurrenceIndex() {
+		// Pair each literal with the clauses in which it occurs.
+		int n = this.numberOfLetters;
+		this.occurrenceOffsets = new int[2 * n + 2];
 		
-		// Initialize the sets of clauses in which literals appear.
-		for(int letter=1; letter <= this.numberOfLetters; letter++) {
-			this.clauseMap.put(letter, new HashSet<>());
-			this.clauseMap.put(-letter, new HashSet<>());
+		// Count the occurrences of each literal.
+		for (int literal : this.literals) {
+			this.occurrenceOffsets[literal + n + 1]++;
+		}
+		// Turn the counts into offsets.
+		for (int l = 1; l < this.occurrenceOffsets.length; l++) {
+			this.occurrenceOffsets[l] += this.occurrenceOffsets[l - 1];
 		}
 		
-		// Fill the sets with the clauses in which their literals appear.
+		// Fill the occurrence lists. The clauses of each literal
+		// end up in increasing order.
+		this.occurrences = new int[this.literals.length];
+		int[] next = new int[2 * n + 1];
+		System.arraycopy(this.occurrenceOffsets, 0, next, 0, next.length);
 		for (int i = 0; i < this.numberOfClauses; i++) {
-			for (int j = 0; j < this.clauses[i].length; j++) {
-				int literal = this.clauses[i][j];
-				this.clauseMap.get(literal).add(i);
+			for (int k = this.clauseOffsets[i]; k < this.clauseOffsets[i + 1]; k++) {
+				int literal = this.literals[k];
+				this.occurrences[next[literal + n]++] = i;
 			}
 		}
 	}
@@ -61,145 +171,224 @@ public class Formula {
 		this.numberOfClauses = numberOfClauses;
 	}
 	public int[][] getClauses() {
+		// Build the clauses as separate arrays. 
+		// The hot paths should use getClauseLength and getLiteral instead.
+		int[][] clauses = new int[this.numberOfClauses][];
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			clauses[i] = Arrays.copyOfRange(this.literals, this.clauseOffsets[i], this.clauseOffsets[i + 1]);
+		}
 		return clauses;
 	}
 	public void setClauses(int[][] clauses) {
-		this.clauses = clauses;
+		this.numberOfClauses = clauses.length;
+		this.storeClauses(clauses);
+		this.normalizeClauses();
+		this.makeOccurrenceIndex();
+		this.kernel = null;
 	}
 	
-	public int getNumberOfSatisfied(int[] solution) {
-		int numberOfSatisfied = 0;
-		for(int i = 0; i < clauses.length; i++) {
-			boolean satisfied = false;
-
-			for(int j = 0; j < clauses[i].length && !satisfied; j++) {
-				// A clause is satisfied by a solution if it contains at least
-				// one literal present in the solution.
-				int literal = clauses[i][j];
-				int position = Math.abs(literal) - 1;
-				int value = literal > 0? 1: 0;
-				
-				if (solution[position] == value) {
-					satisfied = true;
-				}
+	public int getClauseLength(int clause) {
+		return this.clauseOffsets[clause + 1] - this.clauseOffsets[clause];
+	}
+	
+	public int getLiteral(int clause, int position) {
+		return this.literals[this.clauseOffsets[clause] + position];
+	}
+	
+	public long getChecksum() {
+		// The checksum of the clauses, which identifies the formula.
+		CRC32C crc = new CRC32C();
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12).order(ByteOrder.LITTLE_ENDIAN);
+		updateChecksum(crc, buffer, this.literals);
+		updateChecksum(crc, buffer, this.clauseOffsets);
+		buffer.flip();
+		crc.update(buffer);
+		return crc.getValue();
+	}
+
+	private static void updateChecksum(CRC32C crc, ByteBuffer buffer, int[] values) {
+		for (int value : values) {
+			if (buffer.remaining() < 4) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
 			}
-			if (satisfied) {
+			buffer.putInt(value);
+		}
+	}
+
+	int[] getLiterals() {
+		return this.literals;
+	}
+	
+	int[] getClauseOffsets() {
+		return this.clauseOffsets;
+	}
+	
+	int[] getOccurrenceOffsets() {
+		return this.occurrenceOffsets;
+	}
+	
+	int[] getOccurrences() {
+		return this.occurrences;
+	}
+	
+	public void setKernel(String name) {
+		// Choose the backend for counting the satisfied clauses (scalar or vector).
+		// If the vector backend isn't available, the scalar one is used.
+		this.kernel = ClauseKernel.create(this, name);
+	}
+	
+	public String getKernelName() {
+		return this.kernel == null? "scalar" : "vector";
+	}
+	
+	public int getNumberOfSatisfied(Assignment solution) {
+		if (this.kernel != null) {
+			return this.kernel.getNumberOfSatisfied(solution);
+		}
+		int numberOfSatisfied = 0;
+		for(int i = 0; i < this.numberOfClauses; i++) {
+			if (this.isClauseSatisfied(i, solution)) {
 				numberOfSatisfied++;
 			}
 		}
 		return numberOfSatisfied;
 	}
 	
-	public int getNumberOfUnsatisfied(int[] solution) {
+	public int getNumberOfSatisfied(int[] solution) {
+		return this.getNumberOfSatisfied(new Assignment(solution));
+	}
+	
+	public int getNumberOfSatisfiedAfterFlips(Assignment solution, int numberOfSatisfied, int[] positions, int numberOfPositions) {
+		// Update the number of clauses satisfied by a solution after the letters
+		// at the given positions have been negated in it, from the number satisfied
+		// before. Only the clauses in which the letters occur are visited.
+		// The flips are undone and then redone one at a time, so a position
+		// can be listed several times.
+		for (int p = 0; p < numberOfPositions; p++) {
+			solution.flip(positions[p]);
+		}
+		for (int p = 0; p < numberOfPositions; p++) {
+			int letter = positions[p] + 1;
+			numberOfSatisfied -= this.countSatisfiedOccurrences(solution, letter);
+			solution.flip(positions[p]);
+			numberOfSatisfied += this.countSatisfiedOccurrences(solution, letter);
+		}
+		return numberOfSatisfied;
+	}
+
+	public int getNumberOfOccurrences(int letter) {
+		// The number of occurrences of the letter and of its negation.
+		int n = this.numberOfLetters;
+		return this.occurrenceOffsets[letter + n + 1] - this.occurrenceOffsets[letter + n]
+				+ this.occurrenceOffsets[-letter + n + 1] - this.occurrenceOffsets[-letter + n];
+	}
+
+	private int countSatisfiedOccurrences(Assignment solution, int letter) {
+		// Count the satisfied clauses among those containing the letter or its negation.
+		// The clauses are normalized, so each of them is listed once.
+		int count = 0;
+		for (int literal = -letter; literal <= letter; literal += 2 * letter) {
+			int from = this.occurrenceOffsets[literal + this.numberOfLetters];
+			int to = this.occurrenceOffsets[literal + this.numberOfLetters + 1];
+			for (int o = from; o < to; o++) {
+				if (this.isClauseSatisfied(this.occurrences[o], solution)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private boolean isClauseSatisfied(int clause, Assignment solution) {
+		for (int k = this.clauseOffsets[clause]; k < this.clauseOffsets[clause + 1]; k++) {
+			// A clause is satisfied by a solution if it contains at least
+			// one literal present in the solution.
+			if (solution.satisfies(this.literals[k])) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public int getNumberOfUnsatisfied(Assignment solution) {
 		int numberOfSatisfied = this.getNumberOfSatisfied(solution);
 		return this.numberOfClauses - numberOfSatisfied;
 	}
 	
+	public int getNumberOfUnsatisfied(int[] solution) {
+		return this.getNumberOfUnsatisfied(new Assignment(solution));
+	}
 	
-	public double getPercentageOfSatisfied(int[] solution) {
+	
+	public double getPercentageOfSatisfied(Assignment solution) {
+		// A formula without clauses, such as one made only of tautologies, is satisfied by every solution.
+		if (this.numberOfClauses == 0) {
+			return 1.0;
+		}
 		int numberOfSatisfied = this.getNumberOfSatisfied(solution);
 		double percentage = numberOfSatisfied / ((double)this.numberOfClauses);
 		return percentage;
 	}
 	
-	public int[] getRandomValuation() {
+	public double getPercentageOfSatisfied(int[] solution) {
+		return this.getPercentageOfSatisfied(new Assignment(solution));
+	}
+	
+	public Assignment getRandomAssignment(Randomizer random) {
 		int n = this.numberOfLetters;
-		int[] solution = new int[n];
+		Assignment solution = new Assignment(n);
 		for(int i = 0; i < n; i++) {
 			// Randomly determine the polarity of letter  (i+1)
-			if (Randomizer.getDouble() < 0.5) {
-				solution[i] = 0;
-			} else {
-				solution[i] = 1;
+			if (random.getDouble() >= 0.5) {
+				solution.set(i, 1);
 			}
 		}
 		return solution;
 	}
+	
+	public int[] getRandomValuation(Randomizer random) {
+		return this.getRandomAssignment(random).toArray();
+	}
 
 
 	public static Formula read(String formulaFilepath) throws IOException {
-		int numberOfLetters = 0;
-		int numberOfClauses = 0;
-		int clauseCounter = 0;
-		int clauseLength = 0;
-		int clauses[][] = new int[][] {};
-		Scanner scanner;
-		// Open the file
-		FileInputStream fstream = new FileInputStream(formulaFilepath);
-		BufferedReader br = new BufferedReader(new InputStreamReader(fstream));
-		
-		// Read the file line by line
-		String strLine;
-		while ((strLine = br.readLine()) != null)   {
-		  if (strLine.contains("clause length")) {
-			  // Read the number of literals in a clause.
-			  scanner = new Scanner(strLine.split("=")[1]);
-			  clauseLength = scanner.nextInt();
-			  continue;
-		  }
-		  else if (strLine.startsWith("c")) {
-			  // Skip the comment.
-			  continue;
-		  } else if (strLine.startsWith("p")) {
-			  // Read the numbers of the letters and clauses in the formula.
-			  String values = strLine.split("cnf")[1];
-			  scanner = new Scanner(values);
-			  numberOfLetters = scanner.nextInt();
-			  numberOfClauses = scanner.nextInt();
-			  clauses = new int[numberOfClauses][clauseLength];
-			  clauseCounter = 0;
-			  continue;
-		  } else if (strLine.startsWith("%") || strLine.startsWith("0")) {
-			  // Skip the empty lines in the end.
-			  continue;
-		  }
-		  
-		  // Read the literals present in the current-line's clause.
-		  scanner = new Scanner(strLine);
-		  for(int i = 0; i < clauseLength; i++) {
-			  int literal = scanner.nextInt();
-			  clauses[clauseCounter][i] = literal;
-		  }
-		  clauseCounter++;
-		  if (clauseCounter == numberOfClauses) {
-			  break;
-		  }
-		
-		}
-
-		fstream.close();
-
-		
-		return new Formula(numberOfLetters, numberOfClauses, clauses);
+		// Read the formula from a file in the DIMACS format (possibly compressed with gzip).
+		return DimacsReader.read(formulaFilepath);
 	}
 
 
-	public int calculateDamage(int[] solution, int letter) {
+	public int calculateDamage(Assignment solution, int letter) {
 		// Determine the net decrease of the number of satisfied clauses
 		// after negating the given letter.
 		return this.calculateBreak(solution, letter) - this.calculateMake(solution, letter);
 	}
 	
-	public int calculateGain(int[] solution, int letter) {
+	public int calculateGain(Assignment solution, int letter) {
 		// Determine the net increase in the numer of satisfied clauses after 
 		// negating the given letter.
 		return this.calculateMake(solution, letter) - this.calculateBreak(solution, letter);
 	}
 
 
-	public int calculateBreak(int[] solution, int letter) {
+	public int calculateBreak(Assignment solution, int letter) {
 		// Determine the number of clauses satisfied by the given solution,
 		// which become unsatisfied after negating the letter.
 		
-		int literal = solution[letter - 1] > 0? letter : (-letter);
+		int literal = solution.get(letter - 1) > 0? letter : (-letter);
 		// Get the clauses containing the letter with a given value.
-		// Note that they are all satisfied because of that.
-		Set<Integer> possiblyBrokenClauses = this.clauseMap.get(literal);
+		// Note that they are all satisfied because of that, and that each
+		// of them is listed once, as the clauses are normalized.
+		int from = this.occurrenceOffsets[literal + this.numberOfLetters];
+		int to = this.occurrenceOffsets[literal + this.numberOfLetters + 1];
 		
 		int numberOfBrokenClauses = 0;
-		for (int i : possiblyBrokenClauses) {
+		for (int o = from; o < to; o++) {
+			int i = this.occurrences[o];
 			boolean broken = true;
-			for (int clauseLitteral : this.clauses[i]) {
+			for (int k = this.clauseOffsets[i]; k < this.clauseOffsets[i + 1]; k++) {
+				int clauseLitteral = this.literals[k];
 				// If the literal present in the clause is also present
 				// in the solution, then the clause doesn't break.
 				
@@ -209,14 +398,8 @@ public class Formula {
 				}
 				// Check if another letter in the solution
 				// keeps the clause satisfied. If so, it doesn't break.
-				if (clauseLitteral > 0) {
-					if (solution[clauseLitteral - 1] == 1) {
-						broken = false;
-					} 
-				} else {
-					if (solution[(-clauseLitteral) - 1] == 0) {
-						broken = false;
-					}
+				if (solution.satisfies(clauseLitteral)) {
+					broken = false;
 				}
 				
 				if (!broken) break;
@@ -230,32 +413,29 @@ public class Formula {
 	}
 
 
-	public int calculateMake(int[] solution, int letter) {
+	public int calculateMake(Assignment solution, int letter) {
 		// Determine the number of clauses not satisfied by the given solution,
 		// which become satisfied after negating the letter.
 		
-		int literal = solution[letter - 1] > 0? letter : (-letter);
+		int literal = solution.get(letter - 1) > 0? letter : (-letter);
 		// Get the clauses that would be made satisfied after the flip.
-		Set<Integer> possiblyMadeClauses = this.clauseMap.get(-literal);
+		int from = this.occurrenceOffsets[-literal + this.numberOfLetters];
+		int to = this.occurrenceOffsets[-literal + this.numberOfLetters + 1];
 		
 		int numberOfMadeClauses = 0;
 		// Count only the clauses not satisfied by the solution.
-		for (int i : possiblyMadeClauses) {
+		for (int o = from; o < to; o++) {
+			int i = this.occurrences[o];
 			boolean made = true;
-			for (int clauseLiteral : this.clauses[i]) {
+			for (int k = this.clauseOffsets[i]; k < this.clauseOffsets[i + 1]; k++) {
+				int clauseLiteral = this.literals[k];
 				// The clause is already satisfied if one of its literals
 				// is present in the solution.
 				// Note that there is no need to check if clauseLiteral == literal
-				// since clauses under consideration contain -literal and the assumption is 
-				//that the formula is well-formed, i.e. no clause contains complementary literals.
-				if (clauseLiteral > 0) {
-					if (solution[clauseLiteral - 1] == 1) {
-						made = false;
-					} 
-				} else {
-					if (solution[(-clauseLiteral) - 1] == 0) {
-						made = false;
-					}
+				// since clauses under consideration contain -literal, and the normalized
+				// clauses never contain complementary literals.
+				if (solution.satisfies(clauseLiteral)) {
+					made = false;
 				}
 				
 				if (!made) break;
@@ -268,41 +448,59 @@ public class Formula {
 		return numberOfMadeClauses;
 	}
 
-	public boolean isSatisfiedBy(int[] solution) {
+	public int calculateDamage(int[] solution, int letter) {
+		return this.calculateDamage(new Assignment(solution), letter);
+	}
+
+	public int calculateGain(int[] solution, int letter) {
+		return this.calculateGain(new Assignment(solution), letter);
+	}
+
+	public int calculateBreak(int[] solution, int letter) {
+		return this.calculateBreak(new Assignment(solution), letter);
+	}
+
+	public int calculateMake(int[] solution, int letter) {
+		return this.calculateMake(new Assignment(solution), letter);
+	}
+
+	public Evaluator createEvaluator(Assignment solution) {
+		// Create an evaluator which tracks the given solution through flips.
+		return new Evaluator(this, solution);
+	}
+
+	public boolean isSatisfiedBy(Assignment solution) {
 		return this.getNumberOfSatisfied(solution) == this.numberOfClauses;
 	}
+
+	public boolean isSatisfiedBy(int[] solution) {
+		return this.isSatisfiedBy(new Assignment(solution));
+	}
 	
 	
-	public List<Integer> getIndicesOfUnsatisfiedClauses(int[] solution) {
+	public List<Integer> getIndicesOfUnsatisfiedClauses(Assignment solution) {
 		List<Integer> unsatisfiedIndices = new ArrayList<>();
-		for(int i = 0; i < this.clauses.length; i++) {
-			int[] clause = this.clauses[i];
-			boolean satisfied = false;
-			for (int j = 0; j < clause.length && !satisfied; j++) {
-				// A clause is satisfied if it contains at least one literal
-				// present in the solution.
-				int literal = clause[j];
-				int letter = Math.abs(literal);
-				if (solution[letter - 1] == (literal > 0? 1: 0)) {
-					satisfied = true;
-				}
-			}
-			if (!satisfied) {
+		for(int i = 0; i < this.numberOfClauses; i++) {
+			if (!this.isClauseSatisfied(i, solution)) {
 				unsatisfiedIndices.add(i);
 			}
 		}
 		return unsatisfiedIndices;
 	}
 
-	public static Formula getRandomFormula(int numberOfLetters, int numberOfClauses, int clauseLength) {
+	public List<Integer> getIndicesOfUnsatisfiedClauses(int[] solution) {
+		return this.getIndicesOfUnsatisfiedClauses(new Assignment(solution));
+	}
+
+	public static Formula getRandomFormula(int numberOfLetters, int numberOfClauses, int clauseLength, Randomizer random) {
 		int[][] clauses = new int[numberOfClauses][clauseLength];
 		for (int i = 0; i < numberOfClauses; i++) {
 			for (int j = 0; j < clauseLength; j++) {
 				int polarity = 1;
-				if (Randomizer.getDouble() < 0.5) {
+				if (random.getDouble() < 0.5) {
 					polarity = -1;
 				}
-				int letter = Randomizer.getInt(numberOfLetters) + 1;
+				int letter = random.getInt(numberOfLetters) + 1;
 				int literal = letter * polarity;
 				int k = 0;
 				for (k  = 0; k < j + 1; k++) {
@@ -312,10 +510,10 @@ public class Formula {
 				}
 				while (k < j + 1) {
 					polarity = 1;
-					if (Randomizer.getDouble() < 0.5) {
+					if (random.getDouble() < 0.5) {
 						polarity = -1;
 					}
-					letter = Randomizer.getInt(numberOfLetters) + 1;
+					letter = random.getInt(numberOfLetters) + 1;
 					literal = letter * polarity;
 					k = 0;
 					for (k  = 0; k < j + 1; k++) {
@@ -0,0 +1,235 @@
+package sat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+public class FormulaCache {
+	// This class stores parsed formulas in a binary file, so that the next
+	// runs on the same instance can load the flat arrays of the formula
+	// instead of parsing the text again. The file consists of a header
+	// followed by the literals, the clause offsets, the occurrence offsets
+	// and the occurrences, all stored as little-endian ints.
+	//
+	// The header records the size, modification time and checksum of the
+	// source file. If the size and time differ, the checksum of the
+	// source is recomputed, and the cache is rebuilt if the contents changed.
+	// It also records the checksum of the arrays, so a damaged cache is
+	// detected, and it is rebuilt like a stale one.
+	private static final int MAGIC = 0x53415446;
+	private static final int VERSION = 3;
+	private static final int HEADER_SIZE = 48;
+	private static final int REGION_SIZE = 1 << 30;
+	private static final String EXTENSION = ".satcache";
+
+	public static Formula read(String formulaFilepath, String cacheDirectory) throws IOException {
+		// Load the formula from the cache if possible, otherwise parse it and cache it.
+		// If cacheDirectory is null, the cache is stored next to the formula.
+		Path source = Paths.get(formulaFilepath).toAbsolutePath();
+		Path cache = getCachePath(source, cacheDirectory);
+		long size = Files.size(source);
+		long modified = Files.getLastModifiedTime(source).toMillis();
+
+		if (Files.exists(cache)) {
+			Formula formula = load(cache, source, size, modified);
+			if (formula != null) {
+				return formula;
+			}
+		}
+
+		Formula formula = DimacsReader.read(formulaFilepath);
+		try {
+			store(formula, cache, size, modified, checksum(source));
+		} catch (IOException e) {
+			// The cache is only an optimization, so a failure to write it is not fatal.
+		}
+		return formula;
+	}
+
+	private static Path getCachePath(Path source, String cacheDirectory) {
+		if (cacheDirectory == null) {
+			return Paths.get(source.toString() + EXTENSION);
+		}
+		// Name the cache file after the checksum of the source path,
+		// so that instances with the same name in different directories don't collide.
+		CRC32C crc = new CRC32C();
+		crc.update(source.toString().getBytes(StandardCharsets.UTF_8));
+		String name = source.getFileName() + "." + Long.toHexString(crc.getValue()) + EXTENSION;
+		return Paths.get(cacheDirectory, name);
+	}
+
+	private static long checksum(Path source) throws IOException {
+		// Compute the checksum of the file's contents.
+		CRC32C crc = new CRC32C();
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			long size = channel.size();
+			for (long position = 0; position < size; position += REGION_SIZE) {
+				long length = Math.min(REGION_SIZE, size - position);
+				crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static Formula load(Path cache, Path source, long size, long modified) {
+		// Return null if the cache is stale, damaged or unreadable.
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				return null;
+			}
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				return null;
+			}
+			long cachedSize = header.getLong();
+			long cachedModified = header.getLong();
+			long cachedChecksum = header.getLong();
+			if (cachedSize != size) {
+				return null;
+			}
+			if (cachedModified != modified) {
+				if (cachedChecksum != checksum(source)) {
+					return null;
+				}
+				// The file was touched but not changed, so only the time has to be updated.
+				updateModified(cache, modified);
+			}
+			int numberOfLetters = header.getInt();
+			int numberOfClauses = header.getInt();
+			int numberOfLiterals = header.getInt();
+			int payloadChecksum = header.getInt();
+			if (numberOfLetters < 0 || numberOfClauses < 0 || numberOfLiterals < 0) {
+				return null;
+			}
+
+			long expectedSize = HEADER_SIZE + 4L * (2L * numberOfLiterals + numberOfClauses + 1 + 2L * numberOfLetters + 2);
+			if (channel.size() != expectedSize) {
+				return null;
+			}
+			long position = HEADER_SIZE;
+			int[] literals = new int[numberOfLiterals];
+			position = readInts(channel, position, literals);
+			int[] clauseOffsets = new int[numberOfClauses + 1];
+			position = readInts(channel, position, clauseOffsets);
+			int[] occurrenceOffsets = new int[2 * numberOfLetters + 2];
+			position = readInts(channel, position, occurrenceOffsets);
+			int[] occurrences = new int[numberOfLiterals];
+			readInts(channel, position, occurrences);
+			if (payloadChecksum != checksum(literals, clauseOffsets, occurrenceOffsets, occurrences)) {
+				return null;
+			}
+			return new Formula(numberOfLetters, numberOfClauses, literals, clauseOffsets, occurrenceOffsets, occurrences);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static int checksum(int[]... arrays) {
+		// Compute the checksum of the arrays stored in the cache.
+		CRC32C crc = new CRC32C();
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+		for (int[] values : arrays) {
+			int done = 0;
+			while (done < values.length) {
+				int count = Math.min(values.length - done, buffer.remaining() / 4);
+				buffer.asIntBuffer().put(values, done, count);
+				buffer.position(buffer.position() + 4 * count);
+				done += count;
+				if (buffer.remaining() < 4) {
+					buffer.flip();
+					crc.update(buffer);
+					buffer.clear();
+				}
+			}
+		}
+		buffer.flip();
+		crc.update(buffer);
+		return (int) crc.getValue();
+	}
+
+	private static void updateModified(Path cache, long modified) {
+		ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putLong(modified).flip();
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+			channel.write(buffer, 16);
+		} catch (IOException e) {
+			// The checksum will simply be recomputed on the next run.
+		}
+	}
+
+	private static long readInts(FileChannel channel, long position, int[] target) throws IOException {
+		// Copy the ints from the mapped file into the array, region by region.
+		int done = 0;
+		while (done < target.length) {
+			int count = Math.min(target.length - done, REGION_SIZE / 4);
+			MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count);
+			region.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(target, done, count);
+			done += count;
+			position += 4L * count;
+		}
+		return position;
+	}
+
+	private static void store(Formula formula, Path cache, long size, long modified, long checksum) throws IOException {
+		// Write into a temporary file first and then move it into place,
+		// so that concurrent runs never see a partially written cache.
+		Path directory = cache.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temporary = Files.createTempFile(directory, cache.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(MAGIC);
+				buffer.putInt(VERSION);
+				buffer.putLong(size);
+				buffer.putLong(modified);
+				buffer.putLong(checksum);
+				buffer.putInt(formula.getNumberOfLetters());
+				buffer.putInt(formula.getNumberOfClauses());
+				buffer.putInt(formula.getLiterals().length);
+				buffer.putInt(checksum(formula.getLiterals(), formula.getClauseOffsets(),
+						formula.getOccurrenceOffsets(), formula.getOccurrences()));
+				writeInts(channel, buffer, formula.getLiterals());
+				writeInts(channel, buffer, formula.getClauseOffsets());
+				writeInts(channel, buffer, formula.getOccurrenceOffsets());
+				writeInts(channel, buffer, formula.getOccurrences());
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+		// Copy the values into the buffer in bulk, writing it out whenever it fills up.
+		int done = 0;
+		while (done < values.length) {
+			if (buffer.remaining() < 4) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				buffer.clear();
+			}
+			int count = Math.min(values.length - done, buffer.remaining() / 4);
+			buffer.asIntBuffer().put(values, done, count);
+			buffer.position(buffer.position() + 4 * count);
+			done += count;
+		}
+	}
+
+}
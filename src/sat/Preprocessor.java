@@ -0,0 +1,441 @@
+package sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Preprocessor {
+	// This class simplifies a formula before the search, and maps the solutions
+	// of the reduced formula back to the letters of the original one.
+	// Until nothing changes, it
+	// - propagates the unit clauses: their letters are fixed, the clauses they
+	//   satisfy are removed, and the false literals are removed from the others,
+	// - fixes the pure letters (those occurring only positively or only negatively),
+	// - removes the clauses subsumed by others (including the duplicates),
+	// - optionally eliminates the letters whose resolvents don't outnumber their
+	//   clauses (bounded variable elimination): their clauses are replaced by
+	//   the non-tautological resolvents and remembered for the reconstruction.
+	// The remaining letters are renumbered consecutively in the reduced formula.
+	// The reduced formula is satisfiable if and only if the original one is,
+	// and reconstruct turns a solution satisfying the former into one satisfying the latter.
+	//
+	// The clauses are kept sorted, and a clause which loses a literal is removed
+	// and added again, so the occurrence lists only grow, and their entries
+	// of the removed clauses are skipped.
+	private boolean variableElimination = false;
+	// Only the letters with at most that many occurrences are eliminated.
+	private int maximalNumberOfOccurrences = 16;
+
+	private Formula formula;
+	private int numberOfLetters;
+	private int[][] clauses;
+	private boolean[] removed;
+	private int numberOfClauses;
+	private int[][] occurrences;
+	private int[] numbersOfOccurrences;
+	// The fixed values of the letters (1 for true, -1 for false, 0 if not fixed).
+	private int[] values;
+	// The fixed literals whose clauses haven't been simplified yet.
+	private int[] queue;
+	private int queueHead;
+	private int queueTail;
+	private boolean conflict;
+	// The eliminated letters, with their clauses, in the order of elimination.
+	private boolean[] eliminated;
+	private List<Integer> eliminatedLetters = new ArrayList<>();
+	private List<int[][]> eliminatedClauses = new ArrayList<>();
+	// The original position of every position of the reduced formula.
+	private int[] positions;
+	private Formula reducedFormula;
+
+	private int numberOfUnits;
+	private int numberOfPureLetters;
+	private int numberOfSubsumed;
+	private int numberOfDuplicates;
+	private long time;
+
+	public void setVariableElimination(boolean variableElimination) {
+		this.variableElimination = variableElimination;
+	}
+
+	public void setMaximalNumberOfOccurrences(int maximalNumberOfOccurrences) {
+		this.maximalNumberOfOccurrences = maximalNumberOfOccurrences;
+	}
+
+	public Formula preprocess(Formula formula) {
+		// Return the reduced formula, or null if the formula turns out to be unsatisfiable.
+		long start = System.nanoTime();
+		this.formula = formula;
+		this.numberOfLetters = formula.getNumberOfLetters();
+		int n = this.numberOfLetters;
+		this.clauses = new int[Math.max(formula.getNumberOfClauses(), 1)][];
+		this.removed = new boolean[this.clauses.length];
+		this.numberOfClauses = 0;
+		this.occurrences = new int[2 * n + 1][];
+		this.numbersOfOccurrences = new int[2 * n + 1];
+		this.values = new int[n + 1];
+		this.queue = new int[n];
+		this.queueHead = 0;
+		this.queueTail = 0;
+		this.conflict = false;
+		this.eliminated = new boolean[n + 1];
+		this.eliminatedLetters.clear();
+		this.eliminatedClauses.clear();
+		this.numberOfUnits = 0;
+		this.numberOfPureLetters = 0;
+		this.numberOfSubsumed = 0;
+		this.numberOfDuplicates = 0;
+
+		for (int i = 0; i < formula.getNumberOfClauses() && !this.conflict; i++) {
+			int length = formula.getClauseLength(i);
+			int[] clause = new int[length];
+			for (int k = 0; k < length; k++) {
+				clause[k] = formula.getLiteral(i, k);
+			}
+			this.add(normalize(clause, length));
+		}
+		boolean changed = true;
+		while (changed && !this.conflict) {
+			changed = this.propagate();
+			changed |= !this.conflict && this.fixPureLetters();
+			changed |= !this.conflict && this.removeSubsumed();
+			changed |= !this.conflict && this.variableElimination && this.eliminateLetters();
+		}
+		this.reducedFormula = this.conflict? null : this.buildReducedFormula();
+		this.time = System.nanoTime() - start;
+		return this.reducedFormula;
+	}
+
+	private static int[] normalize(int[] literals, int length) {
+		// Sort the literals and drop the repeated ones. Return null for a tautology.
+		int[] clause = Arrays.copyOf(literals, length);
+		Arrays.sort(clause);
+		int k = 0;
+		for (int i = 0; i < length; i++) {
+			if (k == 0 || clause[k - 1] != clause[i]) {
+				clause[k++] = clause[i];
+			}
+		}
+		for (int i = 0; i < k && clause[i] < 0; i++) {
+			if (Arrays.binarySearch(clause, 0, k, -clause[i]) >= 0) {
+				return null;
+			}
+		}
+		return k == length? clause : Arrays.copyOf(clause, k);
+	}
+
+	private int value(int literal) {
+		return literal > 0? this.values[literal] : -this.values[-literal];
+	}
+
+	private void add(int[] clause) {
+		// Add a normalized clause without its false literals, unless it is satisfied.
+		// A unit clause fixes its literal instead.
+		if (clause == null) {
+			return;
+		}
+		int[] literals = new int[clause.length];
+		int length = 0;
+		for (int literal : clause) {
+			int value = this.value(literal);
+			if (value > 0) {
+				return;
+			}
+			if (value == 0) {
+				literals[length++] = literal;
+			}
+		}
+		if (length == 0) {
+			this.conflict = true;
+			return;
+		}
+		if (length == 1) {
+			this.numberOfUnits++;
+			this.fix(literals[0]);
+			return;
+		}
+		if (this.numberOfClauses == this.clauses.length) {
+			this.clauses = Arrays.copyOf(this.clauses, 2 * this.clauses.length);
+			this.removed = Arrays.copyOf(this.removed, this.clauses.length);
+		}
+		int c = this.numberOfClauses++;
+		this.clauses[c] = length == clause.length? literals : Arrays.copyOf(literals, length);
+		for (int literal : this.clauses[c]) {
+			int l = literal + this.numberOfLetters;
+			if (this.occurrences[l] == null) {
+				this.occurrences[l] = new int[4];
+			} else if (this.numbersOfOccurrences[l] == this.occurrences[l].length) {
+				this.occurrences[l] = Arrays.copyOf(this.occurrences[l], 2 * this.occurrences[l].length);
+			}
+			this.occurrences[l][this.numbersOfOccurrences[l]++] = c;
+		}
+	}
+
+	private void fix(int literal) {
+		// Make the literal true, and queue it for the simplification of its clauses.
+		int letter = Math.abs(literal);
+		if (this.values[letter] != 0) {
+			this.conflict |= this.value(literal) < 0;
+			return;
+		}
+		this.values[letter] = literal > 0? 1 : -1;
+		this.queue[this.queueTail++] = literal;
+	}
+
+	private int[] getClausesOf(int literal) {
+		// The present clauses containing the literal.
+		int l = literal + this.numberOfLetters;
+		int[] clausesOf = new int[this.numbersOfOccurrences[l]];
+		int k = 0;
+		for (int i = 0; i < this.numbersOfOccurrences[l]; i++) {
+			int c = this.occurrences[l][i];
+			if (!this.removed[c]) {
+				clausesOf[k++] = c;
+			}
+		}
+		return Arrays.copyOf(clausesOf, k);
+	}
+
+	private boolean propagate() {
+		// Simplify the clauses of the fixed literals, which may fix further ones.
+		boolean changed = this.queueHead < this.queueTail;
+		while (this.queueHead < this.queueTail && !this.conflict) {
+			int literal = this.queue[this.queueHead++];
+			for (int c : this.getClausesOf(literal)) {
+				this.removed[c] = true;
+			}
+			for (int c : this.getClausesOf(-literal)) {
+				this.removed[c] = true;
+				this.add(this.clauses[c]);
+			}
+		}
+		return changed;
+	}
+
+	private boolean fixPureLetters() {
+		// Fix the letters occurring only positively or only negatively,
+		// which removes their clauses.
+		boolean changed = false;
+		for (int letter = 1; letter <= this.numberOfLetters; letter++) {
+			if (this.values[letter] != 0 || this.eliminated[letter]) {
+				continue;
+			}
+			int positive = this.getClausesOf(letter).length;
+			int negative = this.getClausesOf(-letter).length;
+			if (positive > 0 && negative == 0) {
+				this.fix(letter);
+			} else if (negative > 0 && positive == 0) {
+				this.fix(-letter);
+			} else {
+				continue;
+			}
+			this.numberOfPureLetters++;
+			this.propagate();
+			changed = true;
+		}
+		return changed;
+	}
+
+	private boolean isSubset(int[] clause, int[] other) {
+		// Whether every literal of the clause occurs in the other one (both are sorted).
+		int j = 0;
+		for (int literal : clause) {
+			while (j < other.length && other[j] < literal) {
+				j++;
+			}
+			if (j == other.length || other[j] != literal) {
+				return false;
+			}
+			j++;
+		}
+		return true;
+	}
+
+	private boolean removeSubsumed() {
+		// Remove the clauses containing all the literals of another clause.
+		// Each clause is checked against the clauses of its least frequent literal.
+		boolean changed = false;
+		for (int c = 0; c < this.numberOfClauses; c++) {
+			if (this.removed[c]) {
+				continue;
+			}
+			int[] clause = this.clauses[c];
+			int rarest = clause[0];
+			for (int literal : clause) {
+				int l = literal + this.numberOfLetters;
+				if (this.numbersOfOccurrences[l] < this.numbersOfOccurrences[rarest + this.numberOfLetters]) {
+					rarest = literal;
+				}
+			}
+			for (int d : this.getClausesOf(rarest)) {
+				int[] other = this.clauses[d];
+				if (d == c || other.length < clause.length || !this.isSubset(clause, other)) {
+					continue;
+				}
+				this.removed[d] = true;
+				if (other.length == clause.length) {
+					this.numberOfDuplicates++;
+				} else {
+					this.numberOfSubsumed++;
+				}
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	private boolean eliminateLetters() {
+		// Replace the clauses of a letter with their resolvents on it,
+		// if there are no more of the latter than of the former.
+		boolean changed = false;
+		int[] resolvent = new int[0];
+		for (int letter = 1; letter <= this.numberOfLetters && !this.conflict; letter++) {
+			if (this.values[letter] != 0 || this.eliminated[letter]) {
+				continue;
+			}
+			int[] positive = this.getClausesOf(letter);
+			int[] negative = this.getClausesOf(-letter);
+			int numberOfOccurrences = positive.length + negative.length;
+			if (numberOfOccurrences == 0 || numberOfOccurrences > this.maximalNumberOfOccurrences) {
+				continue;
+			}
+			List<int[]> resolvents = new ArrayList<>();
+			for (int p = 0; p < positive.length && resolvents.size() <= numberOfOccurrences; p++) {
+				for (int q = 0; q < negative.length && resolvents.size() <= numberOfOccurrences; q++) {
+					int[] first = this.clauses[positive[p]];
+					int[] second = this.clauses[negative[q]];
+					if (resolvent.length < first.length + second.length) {
+						resolvent = new int[first.length + second.length];
+					}
+					int length = 0;
+					for (int literal : first) {
+						if (literal != letter) {
+							resolvent[length++] = literal;
+						}
+					}
+					for (int literal : second) {
+						if (literal != -letter) {
+							resolvent[length++] = literal;
+						}
+					}
+					int[] normalized = normalize(resolvent, length);
+					if (normalized != null) {
+						resolvents.add(normalized);
+					}
+				}
+			}
+			if (resolvents.size() > numberOfOccurrences) {
+				continue;
+			}
+			int[][] clausesOfLetter = new int[numberOfOccurrences][];
+			for (int i = 0; i < numberOfOccurrences; i++) {
+				int c = i < positive.length? positive[i] : negative[i - positive.length];
+				clausesOfLetter[i] = this.clauses[c];
+				this.removed[c] = true;
+			}
+			this.eliminated[letter] = true;
+			this.eliminatedLetters.add(letter);
+			this.eliminatedClauses.add(clausesOfLetter);
+			for (int[] clause : resolvents) {
+				this.add(clause);
+			}
+			this.propagate();
+			changed = true;
+		}
+		return changed;
+	}
+
+	private Formula buildReducedFormula() {
+		// Renumber the letters which still occur, and copy the remaining clauses.
+		int n = this.numberOfLetters;
+		int[] reducedLetters = new int[n + 1];
+		List<int[]> remaining = new ArrayList<>();
+		for (int c = 0; c < this.numberOfClauses; c++) {
+			if (!this.removed[c]) {
+				remaining.add(this.clauses[c]);
+				for (int literal : this.clauses[c]) {
+					reducedLetters[Math.abs(literal)] = 1;
+				}
+			}
+		}
+		int numberOfReducedLetters = 0;
+		for (int letter = 1; letter <= n; letter++) {
+			if (reducedLetters[letter] != 0) {
+				reducedLetters[letter] = ++numberOfReducedLetters;
+			}
+		}
+		this.positions = new int[numberOfReducedLetters];
+		for (int letter = 1; letter <= n; letter++) {
+			if (reducedLetters[letter] != 0) {
+				this.positions[reducedLetters[letter] - 1] = letter - 1;
+			}
+		}
+		int[][] reducedClauses = new int[remaining.size()][];
+		for (int c = 0; c < reducedClauses.length; c++) {
+			int[] clause = remaining.get(c);
+			reducedClauses[c] = new int[clause.length];
+			for (int k = 0; k < clause.length; k++) {
+				int letter = reducedLetters[Math.abs(clause[k])];
+				reducedClauses[c][k] = clause[k] > 0? letter : -letter;
+			}
+		}
+		return new Formula(numberOfReducedLetters, reducedClauses.length, reducedClauses);
+	}
+
+	public Assignment reconstruct(Assignment reduced) {
+		// Map a solution of the reduced formula to the letters of the original one.
+		// The fixed letters get their values, and the letters that no longer occur are false.
+		// The eliminated letters are then set in the reverse order of elimination:
+		// a letter is false unless one of its clauses needs it to be true.
+		// If the reduced solution satisfies every clause, so does the original one.
+		Assignment solution = new Assignment(this.numberOfLetters);
+		for (int i = 0; i < this.positions.length; i++) {
+			solution.set(this.positions[i], reduced.get(i));
+		}
+		for (int letter = 1; letter <= this.numberOfLetters; letter++) {
+			if (this.values[letter] > 0) {
+				solution.set(letter - 1, 1);
+			}
+		}
+		for (int e = this.eliminatedLetters.size() - 1; e >= 0; e--) {
+			int letter = this.eliminatedLetters.get(e);
+			for (int[] clause : this.eliminatedClauses.get(e)) {
+				boolean satisfied = false;
+				for (int literal : clause) {
+					satisfied |= solution.satisfies(literal);
+				}
+				if (!satisfied) {
+					solution.set(letter - 1, 1);
+					break;
+				}
+			}
+		}
+		return solution;
+	}
+
+	public Formula getFormula() {
+		// The original formula.
+		return this.formula;
+	}
+
+	public boolean isUnsatisfiable() {
+		return this.conflict;
+	}
+
+	public String report() {
+		String format = "Preprocessing: %d -> %d letters, %d -> %d clauses (units: %d, pure letters: %d, duplicates: %d, subsumed: %d, eliminated letters: %d) in %.5f seconds";
+		return String.format(format,
+				this.numberOfLetters,
+				this.reducedFormula == null? 0 : this.reducedFormula.getNumberOfLetters(),
+				this.formula.getNumberOfClauses(),
+				this.reducedFormula == null? 0 : this.reducedFormula.getNumberOfClauses(),
+				this.numberOfUnits,
+				this.numberOfPureLetters,
+				this.numberOfDuplicates,
+				this.numberOfSubsumed,
+				this.eliminatedLetters.size(),
+				this.time / 1000000000.0
+			);
+	}
+
+}
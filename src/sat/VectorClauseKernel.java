@@ -0,0 +1,89 @@
+package sat;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorClauseKernel extends ClauseKernel {
+	// This kernel evaluates blocks of clauses at once with the Vector API.
+	// It applies to formulas whose clauses all have the same length k.
+	// For the j-th literal of every clause, it stores the index of the word
+	// holding the literal's letter, the position of the letter in the word
+	// and whether the literal is negated, so that a block of clauses is
+	// evaluated by gathering the words, extracting the bits and ORing them lane-wise.
+	private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+	private Formula formula;
+	private int clauseLength;
+	private int numberOfClauses;
+	private int[][] wordIndices;
+	private long[][] shifts;
+	private long[][] negations;
+
+	VectorClauseKernel(Formula formula) {
+		this.formula = formula;
+		this.numberOfClauses = formula.getNumberOfClauses();
+		this.clauseLength = this.numberOfClauses > 0? formula.getClauseLength(0) : 0;
+		if (!this.isApplicable()) {
+			return;
+		}
+		int[] literals = formula.getLiterals();
+		this.wordIndices = new int[this.clauseLength][this.numberOfClauses];
+		this.shifts = new long[this.clauseLength][this.numberOfClauses];
+		this.negations = new long[this.clauseLength][this.numberOfClauses];
+		for (int i = 0; i < this.numberOfClauses; i++) {
+			for (int j = 0; j < this.clauseLength; j++) {
+				int literal = literals[i * this.clauseLength + j];
+				int position = Math.abs(literal) - 1;
+				this.wordIndices[j][i] = position >>> 6;
+				this.shifts[j][i] = position & 63;
+				this.negations[j][i] = literal > 0? 0 : 1;
+			}
+		}
+	}
+
+	@Override
+	protected boolean isApplicable() {
+		// All the clauses must have the same, non-zero length.
+		if (this.clauseLength == 0) {
+			return false;
+		}
+		for (int i = 1; i < this.numberOfClauses; i++) {
+			if (this.formula.getClauseLength(i) != this.clauseLength) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int getNumberOfSatisfied(Assignment solution) {
+		long[] words = solution.getWords();
+		int numberOfSatisfied = 0;
+		int upperBound = SPECIES.loopBound(this.numberOfClauses);
+		int i = 0;
+		for (; i < upperBound; i += SPECIES.length()) {
+			LongVector satisfied = LongVector.zero(SPECIES);
+			for (int j = 0; j < this.clauseLength; j++) {
+				// A literal is true if the bit of its letter differs from its negation flag.
+				LongVector bits = LongVector.fromArray(SPECIES, words, 0, this.wordIndices[j], i)
+						.lanewise(VectorOperators.LSHR, LongVector.fromArray(SPECIES, this.shifts[j], i))
+						.and(1L);
+				satisfied = satisfied.or(bits.lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, this.negations[j], i)));
+			}
+			numberOfSatisfied += satisfied.compare(VectorOperators.NE, 0L).trueCount();
+		}
+		// Evaluate the remaining clauses one by one.
+		for (; i < this.numberOfClauses; i++) {
+			for (int j = 0; j < this.clauseLength; j++) {
+				long bit = (words[this.wordIndices[j][i]] >>> this.shifts[j][i]) & 1L;
+				if (bit != this.negations[j][i]) {
+					numberOfSatisfied++;
+					break;
+				}
+			}
+		}
+		return numberOfSatisfied;
+	}
+
+}
@@ -1,43 +1,48 @@
 package sat.heuristics;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import sat.Formula;
+import sat.Evaluator;
 import sat.util.Randomizer;
 
 public class Flip extends Heuristic {
+	// The buffer holding the permutation of the letters, reused by the calls on the same thread.
+	private ThreadLocal<int[]> permutations = new ThreadLocal<>();
 
 	@Override
-	public int[] improve(int[] solution, Formula formula) {
+	protected int improve(Evaluator evaluator, Randomizer random) {
 		// Randomly select a permutation of [1, 2, ..., n]
 		// where n is the number of propositional letters in the given formula.
-		List<Integer> letters = IntStream.rangeClosed(1, solution.length)
-				                 .boxed().
-				                 collect(Collectors.toList());
-		Collections.shuffle(letters, Randomizer.getGenerator());
-		int[] solutionCopy = solution.clone();
+		int numberOfLetters = evaluator.getFormula().getNumberOfLetters();
+		int[] letters = this.permutations.get();
+		if (letters == null || letters.length != numberOfLetters) {
+			letters = new int[numberOfLetters];
+			this.permutations.set(letters);
+		}
+		for (int i = 0; i < numberOfLetters; i++) {
+			letters[i] = i + 1;
+		}
+		random.shuffle(letters);
 		int improvement = 1;
-		while (improvement > 0 && !formula.isSatisfiedBy(solutionCopy)) {
+		// A step is a pass over all the letters.
+		int numberOfSteps = 0;
+		while (improvement > 0 && !evaluator.isSatisfied() && !this.shouldStop(evaluator)) {
 			// The improvement is the decrease in the number of unsatisfied clauses.
 			improvement = 0;
-			for (int letter : letters) {
-				int unsatisfiedBefore = formula.getNumberOfUnsatisfied(solutionCopy);
-				solutionCopy[letter - 1] = 1 - solutionCopy[letter - 1];
-				int unsatisfiedAfter = formula.getNumberOfUnsatisfied(solutionCopy);
-				int gain = unsatisfiedBefore - unsatisfiedAfter;
+			numberOfSteps++;
+			for (int k = 0; k < numberOfLetters; k++) {
+				// A pass can be long, so the criteria are also checked during it.
+				if ((k & 255) == 255 && this.shouldStop(evaluator)) {
+					break;
+				}
+				int letter = letters[k];
+				int gain = evaluator.getGain(letter);
 				if (gain >= 0) {
-					// Keep the flip if it decreases the number of unsatisfied clauses. 
+					// Keep the flip if it doesn't increase the number of unsatisfied clauses.
+					evaluator.flip(letter);
 					improvement += gain;
-				} else {
-					// Discard it if it doesn't.
-					solutionCopy[letter - 1] = 1 - solutionCopy[letter - 1];
 				}
 			}
 		}
-		return solutionCopy;
+		return numberOfSteps;
 	}
 	
 	@Override
@@ -1,7 +1,84 @@
 package sat.heuristics;
 
+import java.util.concurrent.atomic.LongAdder;
+
+import sat.Assignment;
+import sat.Evaluator;
 import sat.Formula;
+import sat.util.Randomizer;
+import sat.util.StoppingCriteria;
 
 public abstract class Heuristic {
-	public abstract int[] improve(int[] solution, Formula formula);
+	protected StoppingCriteria stoppingCriteria = null;
+	// The heuristic can improve several individuals at once, so the flips are counted with an adder.
+	private LongAdder numberOfFlips = new LongAdder();
+	// Every thread reuses its evaluator as long as the formula doesn't change.
+	private ThreadLocal<Evaluator> evaluators = new ThreadLocal<>();
+
+	public int improve(Assignment solution, Formula formula, Randomizer random) {
+		// Improve the solution in place and return the number of clauses it satisfies.
+		Evaluator evaluator = this.getEvaluator(solution, formula);
+		HeuristicEvent event = HeuristicEvent.begin(this, evaluator);
+		int numberOfSteps = this.improve(evaluator, random);
+		this.countFlips(evaluator);
+		evaluator.copySolutionTo(solution);
+		if (event != null) {
+			event.end(numberOfSteps, evaluator);
+		}
+		return evaluator.getNumberOfSatisfied();
+	}
+
+	// Improve the evaluator's solution and return the number of steps taken.
+	protected abstract int improve(Evaluator evaluator, Randomizer random);
+
+	public int[] improve(int[] solution, Formula formula, Randomizer random) {
+		// Improve a solution stored as an array of zeros and ones.
+		Assignment assignment = new Assignment(solution);
+		this.improve(assignment, formula, random);
+		return assignment.toArray();
+	}
+
+	private Evaluator getEvaluator(Assignment solution, Formula formula) {
+		Evaluator evaluator = this.evaluators.get();
+		if (evaluator == null || evaluator.getFormula() != formula) {
+			evaluator = formula.createEvaluator(solution);
+			this.evaluators.set(evaluator);
+		} else {
+			evaluator.reset(solution);
+		}
+		return evaluator;
+	}
+
+	public void setStoppingCriteria(StoppingCriteria stoppingCriteria) {
+		this.stoppingCriteria = stoppingCriteria;
+	}
+
+	protected void countFlips(Evaluator evaluator) {
+		// Add the flips performed by the evaluator to the total.
+		this.numberOfFlips.add(evaluator.getNumberOfFlips());
+	}
+
+	public long getNumberOfFlips() {
+		return this.numberOfFlips.sum();
+	}
+
+	public void setNumberOfFlips(long numberOfFlips) {
+		// Restore the number of flips, e.g. when a search is resumed.
+		this.numberOfFlips.reset();
+		this.numberOfFlips.add(numberOfFlips);
+	}
+
+	protected boolean shouldStop(Evaluator evaluator) {
+		// Check if the search should stop. The step loops check this after every step.
+		// The flips of this invocation are added to those of the finished ones.
+		if (this.stoppingCriteria == null || !this.stoppingCriteria.hasStepCriteria()) {
+			return false;
+		}
+		long numberOfFlips = 0;
+		if (this.stoppingCriteria.hasFlipBudget()) {
+			numberOfFlips = this.numberOfFlips.sum() + evaluator.getNumberOfFlips();
+		}
+		return this.stoppingCriteria.isMetAfterStep(numberOfFlips,
+				evaluator.getNumberOfSatisfied(), evaluator.getFormula().getNumberOfClauses());
+	}
 }
@@ -0,0 +1,62 @@
+package sat.heuristics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import sat.Evaluator;
+
+@Name("sat.HeuristicInvocation")
+@Label("Heuristic Invocation")
+@Description("An improvement of one solution by a heuristic")
+@Category({"SAT", "Heuristics"})
+@StackTrace(false)
+public class HeuristicEvent extends Event {
+	// This class is the Flight Recorder event of a Heuristic.improve call.
+	// The event is only allocated while a recording enables it,
+	// so the heuristics don't allocate anything otherwise.
+	private static final EventType TYPE = EventType.getEventType(HeuristicEvent.class);
+
+	@Label("Heuristic")
+	String heuristic;
+
+	@Label("Steps")
+	int steps;
+
+	@Label("Flips")
+	long flips;
+
+	@Label("Initially Satisfied")
+	int initiallySatisfied;
+
+	@Label("Gain")
+	@Description("The increase in the number of satisfied clauses")
+	int gain;
+
+	static HeuristicEvent begin(Heuristic heuristic, Evaluator evaluator) {
+		// Start the event, or return null if no recording enables it.
+		if (!TYPE.isEnabled()) {
+			return null;
+		}
+		HeuristicEvent event = new HeuristicEvent();
+		event.heuristic = heuristic.getClass().getSimpleName();
+		event.initiallySatisfied = evaluator.getNumberOfSatisfied();
+		event.begin();
+		return event;
+	}
+
+	void end(int steps, Evaluator evaluator) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.steps = steps;
+			this.flips = evaluator.getNumberOfFlips();
+			this.gain = evaluator.getNumberOfSatisfied() - this.initiallySatisfied;
+			this.commit();
+		}
+	}
+
+}
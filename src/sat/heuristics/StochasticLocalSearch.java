@@ -1,5 +1,6 @@
 package sat.heuristics;
 
+import sat.Evaluator;
 import sat.Formula;
 import sat.util.DiscreteDistribution;
 import sat.util.Randomizer;
@@ -8,6 +9,8 @@ public class StochasticLocalSearch extends Heuristic {
 	private double Cb;
 	private double epsilon;
 	private int maximalNumberOfSteps;
+	// The distribution over a clause's letters, reused by the calls on the same thread.
+	private ThreadLocal<DiscreteDistribution> distributions = ThreadLocal.withInitial(DiscreteDistribution::new);
 	
 	public  StochasticLocalSearch(int maximalNumberOfSteps, double Cb, double epsilon) {
 		this.Cb = Cb;
@@ -16,34 +19,33 @@ public class StochasticLocalSearch extends Heuristic {
 	}
 
 	@Override
-	public int[] improve(int[] solution, Formula formula) {
-		int[] solutionCopy = solution.clone();
-		int[][] clauses = formula.getClauses();
-		for (int s = 0; s < this.maximalNumberOfSteps; s++) {
-			if (formula.isSatisfiedBy(solutionCopy)) {
+	protected int improve(Evaluator evaluator, Randomizer random) {
+		Formula formula = evaluator.getFormula();
+		DiscreteDistribution dist = this.distributions.get();
+		int s;
+		for (s = 0; s < this.maximalNumberOfSteps; s++) {
+			if (evaluator.isSatisfied() || this.shouldStop(evaluator)) {
 				break;
 			}
 			// Randomly select an unsatisfied clause.
-			int i = Randomizer.select(formula.getIndicesOfUnsatisfiedClauses(solution));
+			int i = evaluator.getUnsatisfiedClause(random.getInt(evaluator.getNumberOfUnsatisfied()));
 			
 			// Calculate the weights.
-			double weights[] = new double[clauses[i].length];
-			for (int j = 0; j < clauses[i].length; j++) {
-				int letter = Math.abs(clauses[i][j]);
-				int breakValue = formula.calculateBreak(solutionCopy, letter);
-				weights[j] = Math.pow(this.epsilon + breakValue, -this.Cb);
+			dist.reset();
+			for (int j = 0; j < formula.getClauseLength(i); j++) {
+				int letter = Math.abs(formula.getLiteral(i, j));
+				int breakValue = evaluator.getBreak(letter);
+				dist.add(Math.pow(this.epsilon + breakValue, -this.Cb));
 			}
 			
 			// Using the weights, randomly draw a letter to negate.
-			Integer[] L = new Integer[clauses[i].length];
-			for (int j=0; j< clauses[i].length; j++) L[j] = clauses[i][j];
-			DiscreteDistribution<Integer> dist = new DiscreteDistribution<>(L, weights);
-			int literalToFlip = dist.draw();
+			// A clause is drawn from only once, so the weights are scanned directly.
+			int literalToFlip = formula.getLiteral(i, dist.draw(random));
 			int letterToFlip = Math.abs(literalToFlip);
-			solutionCopy[letterToFlip - 1] = 1 - solutionCopy[letterToFlip - 1];
+			evaluator.flip(letterToFlip);
 			
 		}
-		return solutionCopy;
+		return s;
 	}
 	
 	@Override
@@ -1,5 +1,6 @@
 package sat.heuristics;
 
+import sat.Evaluator;
 import sat.Formula;
 import sat.util.Randomizer;
 
@@ -14,37 +15,37 @@ public class WalkSAT extends Heuristic {
 	}
 
 	@Override
-	public int[] improve(int[] solution, Formula formula) {
-		int [] solutionCopy = solution.clone();
-		int[][] clauses = formula.getClauses();
-		for (int s = 0; s < this.maximalNumberOfSteps; s++) {
-			if (formula.isSatisfiedBy(solutionCopy)) {
+	protected int improve(Evaluator evaluator, Randomizer random) {
+		Formula formula = evaluator.getFormula();
+		int s;
+		for (s = 0; s < this.maximalNumberOfSteps; s++) {
+			if (evaluator.isSatisfied() || this.shouldStop(evaluator)) {
 				break;
 			}
 			// Randomly select an unsatisfied clause.
-			int i = Randomizer.select(formula.getIndicesOfUnsatisfiedClauses(solution));
+			int i = evaluator.getUnsatisfiedClause(random.getInt(evaluator.getNumberOfUnsatisfied()));
 			int positionToFlip;
-			if (Randomizer.getDouble() < this.randomMoveProbability) {
+			if (random.getDouble() < this.randomMoveProbability) {
 				// Randomly flip one of its letters.
-				int j = Randomizer.getInt(clauses[i].length);
-				positionToFlip = Math.abs(clauses[i][j]) - 1;
+				int j = random.getInt(formula.getClauseLength(i));
+				positionToFlip = Math.abs(formula.getLiteral(i, j)) - 1;
 			} else {
 				// Negate the letter which yields the maximal gain in the number
 				// of satisfied clauses.
-				int maxGain = -clauses.length - 1;
+				int maxGain = -formula.getNumberOfClauses() - 1;
 				positionToFlip = -1;
-				for (int j = 0; j < clauses[i].length; j++) {
-					int letter = Math.abs(clauses[i][j]);
-					int gain = formula.calculateGain(solutionCopy, letter);
+				for (int j = 0; j < formula.getClauseLength(i); j++) {
+					int letter = Math.abs(formula.getLiteral(i, j));
+					int gain = evaluator.getGain(letter);
 					if (gain > maxGain) {
 						maxGain = gain;
 						positionToFlip = letter - 1;
 					}
 				}
-				solutionCopy[positionToFlip] = 1 - solutionCopy[positionToFlip];
 			}
+			evaluator.flip(positionToFlip + 1);
 		}
-		return solutionCopy;
+		return s;
 	}
 	
 	@Override
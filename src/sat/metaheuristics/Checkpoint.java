@@ -0,0 +1,186 @@
+package sat.metaheuristics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import sat.Assignment;
+import sat.Formula;
+import sat.util.Randomizer;
+
+class Checkpoint {
+	// This class saves the state of a genetic algorithm between two generations,
+	// from which the run can be resumed exactly as if it hadn't been interrupted.
+	// The state is captured into a buffer on the algorithm's thread, which is cheap,
+	// and written on a thread of the checkpoint: into a temporary file first,
+	// which is then moved into place, so a checkpoint is never partially written.
+	// If the writing falls behind, only the latest captured state is written.
+	//
+	// The file consists of little-endian values: a header identifying the formula
+	// and the algorithm, the master generator, the counters, the best found
+	// solution, the population (the number of satisfied clauses and the words of
+	// every individual), and the improvement cache, if there is one.
+	// The individuals between two generations are always evaluated, and the other
+	// buffers of the algorithm are overwritten before they are read, so they aren't saved.
+	private static final int MAGIC = 0x5341544b;
+	private static final int VERSION = 1;
+
+	private Path path;
+	private AtomicReference<ByteBuffer> pending = new AtomicReference<>();
+	private ExecutorService writer;
+
+	Checkpoint(Path path) {
+		this.path = path;
+		this.writer = Executors.newSingleThreadExecutor(task -> new Thread(task, "checkpoint"));
+	}
+
+	void save(GeneticAlgorithm alg) {
+		// Capture the state, and write it unless an earlier state is still waiting.
+		if (this.pending.getAndSet(capture(alg)) == null) {
+			this.writer.execute(this::writePending);
+		}
+	}
+
+	void close() {
+		// Wait for the pending state to be written.
+		this.writer.shutdown();
+		try {
+			this.writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writePending() {
+		ByteBuffer state = this.pending.getAndSet(null);
+		if (state == null) {
+			return;
+		}
+		try {
+			Path directory = this.path.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path temporary = Files.createTempFile(directory, this.path.getFileName().toString(), ".tmp");
+			try {
+				Files.write(temporary, state.array());
+				Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temporary);
+			}
+		} catch (IOException e) {
+			// A failed checkpoint doesn't stop the search, which will try again at the next one.
+			System.err.println("Cannot write the checkpoint " + this.path + ": " + e.getMessage());
+		}
+	}
+
+	private static byte[] describe(GeneticAlgorithm alg) {
+		// The parameters of the algorithm, which a resumed run must share,
+		// except for the maximal number of iterations, so that a run can be extended.
+		return Portfolio.describe(alg).replaceAll("MNI = \\d+", "MNI").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer capture(GeneticAlgorithm alg) {
+		byte[] description = describe(alg);
+		int numberOfSolutionBytes = alg.population[0].getSolution().getNumberOfBytes();
+		int size = 4 + 4 + 4 + 4 + 8 + 4 + description.length
+				+ 8 + 8 + 4 + 4 + 8 + 8 + 8 + 8 + 8
+				+ 4 + numberOfSolutionBytes + alg.population.length * (4 + numberOfSolutionBytes)
+				+ 1 + (alg.improvementCache == null? 0 : alg.improvementCache.getNumberOfBytes());
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(alg.formula.getNumberOfLetters());
+		buffer.putInt(alg.formula.getNumberOfClauses());
+		buffer.putLong(alg.formula.getChecksum());
+		buffer.putInt(description.length);
+		buffer.put(description);
+
+		long now = System.nanoTime();
+		buffer.putLong(alg.random.getSeed());
+		buffer.putLong(alg.random.getGamma());
+		buffer.putInt(alg.numberOfPerformedIterations);
+		buffer.putInt(alg.firstIterationOfTheBestFound);
+		buffer.putDouble(alg.bestFoundValue);
+		buffer.putLong(now - alg.startTime);
+		buffer.putLong(alg.timeOfTheBestFoundSolutuon - alg.startTime);
+		buffer.putLong(alg.numberOfEvaluations);
+		buffer.putLong(alg.getNumberOfFlips());
+
+		buffer.putInt(alg.population.length);
+		alg.bestFoundSolution.writeTo(buffer);
+		for (GAIndividual individual : alg.population) {
+			buffer.putInt(individual.getNumberOfSatisfied());
+			individual.getSolution().writeTo(buffer);
+		}
+		buffer.put((byte) (alg.improvementCache == null? 0 : 1));
+		if (alg.improvementCache != null) {
+			alg.improvementCache.writeTo(buffer);
+		}
+		return buffer;
+	}
+
+	static void restore(GeneticAlgorithm alg, Path path) throws IOException {
+		// Restore the state of a prepared algorithm from the checkpoint.
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException(path + " is not a checkpoint of this version.");
+		}
+		Formula formula = alg.formula;
+		if (buffer.getInt() != formula.getNumberOfLetters() || buffer.getInt() != formula.getNumberOfClauses()
+				|| buffer.getLong() != formula.getChecksum()) {
+			throw new IOException("The checkpoint " + path + " is of another formula.");
+		}
+		byte[] description = new byte[buffer.getInt()];
+		buffer.get(description);
+		String expected = new String(describe(alg), StandardCharsets.UTF_8);
+		String found = new String(description, StandardCharsets.UTF_8);
+		if (!found.equals(expected)) {
+			throw new IOException("The checkpoint " + path + " is of another algorithm: " + found);
+		}
+
+		long now = System.nanoTime();
+		alg.random = new Randomizer(buffer.getLong(), buffer.getLong());
+		alg.numberOfPerformedIterations = buffer.getInt();
+		alg.currentIteration = alg.numberOfPerformedIterations;
+		alg.firstIterationOfTheBestFound = buffer.getInt();
+		alg.bestFoundValue = buffer.getDouble();
+		// The time of the run continues from that of the checkpoint.
+		alg.startTime = now - buffer.getLong();
+		alg.timeOfTheBestFoundSolutuon = alg.startTime + buffer.getLong();
+		alg.numberOfEvaluations = buffer.getLong();
+		long numberOfFlips = buffer.getLong();
+		if (alg.heuristic != null) {
+			alg.heuristic.setNumberOfFlips(numberOfFlips);
+		}
+
+		int numberOfLetters = formula.getNumberOfLetters();
+		if (buffer.getInt() != alg.population.length) {
+			throw new IOException("The population size differs from the checkpoint.");
+		}
+		alg.bestFoundSolution = new Assignment(numberOfLetters);
+		alg.bestFoundSolution.readFrom(buffer);
+		for (int i = 0; i < alg.population.length; i++) {
+			int numberOfSatisfied = buffer.getInt();
+			Assignment solution = new Assignment(numberOfLetters);
+			solution.readFrom(buffer);
+			alg.population[i] = new GAIndividual(formula);
+			alg.population[i].setSolution(solution);
+			alg.population[i].setNumberOfSatisfied(numberOfSatisfied);
+		}
+		boolean cached = buffer.get() != 0;
+		if (cached != (alg.improvementCache != null)) {
+			throw new IOException("The improvement cache differs from the checkpoint.");
+		}
+		if (cached) {
+			alg.improvementCache.readFrom(buffer, numberOfLetters);
+		}
+	}
+
+}
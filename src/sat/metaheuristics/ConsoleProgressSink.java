@@ -0,0 +1,61 @@
+package sat.metaheuristics;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+public class ConsoleProgressSink implements ProgressListener {
+	// This listener prints the progress of a run, at most one line about
+	// the completed generations and new best found solutions per interval.
+	// Satisfaction and termination are always printed.
+	private PrintStream output;
+	private long intervalNanos;
+	private long lastPrinted;
+
+	public ConsoleProgressSink(long intervalMillis) {
+		this(System.out, intervalMillis);
+	}
+
+	public ConsoleProgressSink(PrintStream output, long intervalMillis) {
+		this.output = output;
+		this.intervalNanos = intervalMillis * 1000000;
+		this.lastPrinted = System.nanoTime() - this.intervalNanos;
+	}
+
+	private boolean isDue() {
+		long now = System.nanoTime();
+		if (now - this.lastPrinted < this.intervalNanos) {
+			return false;
+		}
+		this.lastPrinted = now;
+		return true;
+	}
+
+	@Override
+	public void generationCompleted(ProgressEvent event) {
+		if (this.isDue()) {
+			this.print("Iteration %d (%.3f s): %.5f", event);
+		}
+	}
+
+	@Override
+	public void newBestFound(ProgressEvent event) {
+		if (this.isDue()) {
+			this.print("New best found in iteration %d (%.3f s): %.5f", event);
+		}
+	}
+
+	@Override
+	public void satisfied(ProgressEvent event) {
+		this.print("Satisfied in iteration %d (%.3f s): %.5f", event);
+	}
+
+	@Override
+	public void terminated(ProgressEvent event) {
+		this.print("Terminated after iteration %d (%.3f s): %.5f", event);
+	}
+
+	private void print(String format, ProgressEvent event) {
+		this.output.println(String.format(Locale.ROOT, format, event.getIteration(), event.getTime(), event.getBestFoundValue()));
+	}
+
+}
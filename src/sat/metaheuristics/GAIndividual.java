@@ -1,76 +1,190 @@
 package sat.metaheuristics;
 
 
+import sat.Assignment;
 import sat.Formula;
 import sat.heuristics.Heuristic;
 import sat.util.Randomizer;
 
 public class GAIndividual implements Cloneable {
-	private int[] solution;
+	private Assignment solution;
 	private Formula formula;;
 	private double value;
 	
+	// The individual caches the number of clauses satisfied by its solution.
+	// Crossover and mutation record the positions they change, and evaluate
+	// updates the cached number through the clauses of the changed letters only.
+	// numberOfChanges is 0 if the cached number is up to date, and UNKNOWN if it
+	// has to be recomputed from scratch (also when too many positions changed
+	// for the update to be cheaper than a full evaluation).
+	// A child identical to its first parent inherits the parent's number, but its
+	// evaluation is still counted, so counted is false until it is evaluated.
+	private static final int UNKNOWN = -1;
+	private int numberOfSatisfied;
+	private int[] changes;
+	private int numberOfChanges = UNKNOWN;
+	private boolean counted = true;
+	
 	public GAIndividual(Formula formula) {
 		this.formula = formula;
+		// Above this many changes, a full evaluation is cheaper.
+		this.changes = new int[formula.getNumberOfLetters() / 16 + 1];
+	}
+	
+	public GAIndividual(Formula formula, Assignment solution) {
+		this(formula);
+		this.solution = solution.copy();
 	}
 	
 	public GAIndividual(Formula formula, int[] solution) {
-		this.formula = formula;
-		this.solution = solution.clone();
+		this(formula, new Assignment(solution));
 	}
 	
-	public void initialize() {
-		this.solution = this.formula.getRandomValuation();
+	public void initialize(Randomizer random) {
+		this.solution = this.formula.getRandomAssignment(random);
+		this.numberOfChanges = UNKNOWN;
 	}
 
 	public void evaluate() {
-		this.value = formula.getPercentageOfSatisfied(solution);
-		//this.value = formula.getNumberOfSatisfied(solution);
+		if (this.numberOfChanges == UNKNOWN) {
+			this.setNumberOfSatisfied(this.formula.getNumberOfSatisfied(this.solution));
+		} else if (this.numberOfChanges > 0) {
+			this.setNumberOfSatisfied(this.formula.getNumberOfSatisfiedAfterFlips(
+					this.solution, this.numberOfSatisfied, this.changes, this.numberOfChanges));
+		}
+		this.counted = true;
 	}
 
-	public int[] getSolution() {
-		return solution.clone();
+	boolean lookUp(ImprovementCache cache) {
+		// Replace the solution with its cached improvement, if there is one.
+		int numberOfSatisfied = cache.lookUp(this.solution);
+		if (numberOfSatisfied < 0) {
+			return false;
+		}
+		this.setNumberOfSatisfied(numberOfSatisfied);
+		return true;
+	}
+
+	boolean needsFullEvaluation() {
+		return this.numberOfChanges == UNKNOWN;
+	}
+
+	boolean isEvaluated() {
+		// Whether the value is up to date and its evaluation has been counted.
+		return this.numberOfChanges == 0 && this.counted;
+	}
+
+	long getEvaluationCost() {
+		// The number of clauses the next evaluation visits. The clauses of each
+		// changed letter are visited twice, before and after it is flipped back.
+		if (this.numberOfChanges == UNKNOWN) {
+			return this.formula.getNumberOfClauses();
+		}
+		long cost = 0;
+		for (int c = 0; c < this.numberOfChanges; c++) {
+			cost += 2 * this.formula.getNumberOfOccurrences(this.changes[c] + 1);
+		}
+		return cost;
+	}
+
+	void setNumberOfSatisfied(int numberOfSatisfied) {
+		// Set the value from a number of satisfied clauses computed elsewhere.
+		this.numberOfSatisfied = numberOfSatisfied;
+		this.numberOfChanges = 0;
+		this.counted = true;
+		int numberOfClauses = this.formula.getNumberOfClauses();
+		// A formula without clauses is satisfied by every solution.
+		this.value = numberOfClauses == 0? 1.0 : numberOfSatisfied / ((double) numberOfClauses);
+	}
+
+	public int getNumberOfSatisfied() {
+		// The number of satisfied clauses as of the last evaluation.
+		return this.numberOfSatisfied;
+	}
+
+	private void recordChange(int position) {
+		if (this.numberOfChanges == UNKNOWN) {
+			return;
+		}
+		if (this.numberOfChanges == this.changes.length) {
+			this.numberOfChanges = UNKNOWN;
+			return;
+		}
+		this.changes[this.numberOfChanges++] = position;
+	}
+
+	public Assignment getSolution() {
+		// The solution is not copied, so callers that keep it must copy it themselves.
+		// Callers that change it must call setSolution afterwards.
+		return solution;
 	}
 	
-	public void setSolution(int[] solution) {
+	public void setSolution(Assignment solution) {
 		this.solution = solution;
+		this.numberOfChanges = UNKNOWN;
 	}
 
 	public double getValue() {
 		return value;
 	}
 
-	public GAIndividual crossover(GAIndividual other) {
-		int[] newSolution = new int[this.formula.getNumberOfLetters()];
-		int[] otherSolution = other.getSolution();
+	public GAIndividual crossover(GAIndividual other, Randomizer random) {
+		GAIndividual child = new GAIndividual(formula);
+		child.setSolution(new Assignment(this.formula.getNumberOfLetters()));
+		this.crossover(other, child, random);
+		return child;
+		
+	}
+
+	public void crossover(GAIndividual other, GAIndividual child, Randomizer random) {
+		// Overwrite the child with a uniform crossover of this individual and the other one.
+		// The child starts as a copy of this individual, so its number of satisfied
+		// clauses can be updated from this one's through the genes taken from the other.
+		Assignment newSolution = child.getSolution();
+		Assignment otherSolution = other.getSolution();
+		newSolution.copyFrom(this.solution);
+		child.numberOfSatisfied = this.numberOfSatisfied;
+		child.value = this.value;
+		child.numberOfChanges = this.numberOfChanges == 0? 0 : UNKNOWN;
+		child.counted = false;
 		for (int i = 0; i < this.formula.getNumberOfLetters(); i++) {
-			if (Randomizer.getDouble() < 0.5) {
-				newSolution[i] = this.solution[i];
-			} else {
-				newSolution[i] = otherSolution[i];
+			if (random.getDouble() >= 0.5 && otherSolution.get(i) != this.solution.get(i)) {
+				newSolution.flip(i);
+				child.recordChange(i);
 			}
 		}
-		GAIndividual child = new GAIndividual(formula, newSolution);
-		return child;
-		
 	}
 
-	public void mutate(double geneMutationProbability) {
-		for (int i = 0; i < this.solution.length; i++) {
-			if (Randomizer.getDouble() < geneMutationProbability) {
-				this.solution[i] = 1 - this.solution[i];
+	public void mutate(double geneMutationProbability, Randomizer random) {
+		for (int i = 0; i < this.solution.getNumberOfLetters(); i++) {
+			if (random.getDouble() < geneMutationProbability) {
+				this.solution.flip(i);
+				this.recordChange(i);
 			}
 		}
 		
 	}
 
-	public void applyHeuristic(Heuristic heuristic) {
-		this.solution = heuristic.improve(this.solution, this.formula);
+	public void applyHeuristic(Heuristic heuristic, Randomizer random) {
+		this.setNumberOfSatisfied(heuristic.improve(this.solution, this.formula, random));
 		
+	}
+
+	public void copyFrom(GAIndividual other) {
+		// Overwrite this individual with another one, reusing the solution.
+		this.solution.copyFrom(other.solution);
+		this.value = other.value;
+		this.numberOfSatisfied = other.numberOfSatisfied;
+		this.numberOfChanges = other.numberOfChanges;
+		this.counted = other.counted;
+		if (this.numberOfChanges > 0) {
+			System.arraycopy(other.changes, 0, this.changes, 0, this.numberOfChanges);
+		}
 	}
 	
 	 public GAIndividual clone() {
-		GAIndividual clone = new GAIndividual(this.formula, this.solution.clone());
+		GAIndividual clone = new GAIndividual(this.formula, this.solution);
+		clone.copyFrom(this);
 		return clone;
 		 
 	 }
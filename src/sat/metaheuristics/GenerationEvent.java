@@ -0,0 +1,81 @@
+package sat.metaheuristics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("sat.Generation")
+@Label("Generation")
+@Description("A generation of a genetic algorithm")
+@Category({"SAT", "Metaheuristics"})
+@StackTrace(false)
+public class GenerationEvent extends Event {
+	// This class is the Flight Recorder event of a generation. The fitness values
+	// are those of the population at the end of the generation. The event is
+	// only allocated while a recording enables it, so that the generations
+	// don't allocate anything otherwise.
+	private static final EventType TYPE = EventType.getEventType(GenerationEvent.class);
+
+	@Label("Generation")
+	int generation;
+
+	@Label("Best Fitness")
+	double bestFitness;
+
+	@Label("Mean Fitness")
+	double meanFitness;
+
+	@Label("Previous Best Fitness")
+	@Description("The best fitness of the population at the start of the generation")
+	double previousBestFitness;
+
+	@Label("Children Improved")
+	@Description("The children better than the best individual at the start of the generation")
+	int childrenImproved;
+
+	static GenerationEvent begin(GAIndividual[] population) {
+		// Start the event, or return null if no recording enables it.
+		if (!TYPE.isEnabled()) {
+			return null;
+		}
+		GenerationEvent event = new GenerationEvent();
+		event.previousBestFitness = getBestValue(population);
+		event.begin();
+		return event;
+	}
+
+	void countImprovedChildren(GAIndividual[] children) {
+		for (GAIndividual child : children) {
+			if (child.getValue() > this.previousBestFitness) {
+				this.childrenImproved++;
+			}
+		}
+	}
+
+	void end(int generation, GAIndividual[] population) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.generation = generation;
+			this.bestFitness = getBestValue(population);
+			double sum = 0;
+			for (GAIndividual individual : population) {
+				sum += individual.getValue();
+			}
+			this.meanFitness = sum / population.length;
+			this.commit();
+		}
+	}
+
+	private static double getBestValue(GAIndividual[] population) {
+		double best = 0;
+		for (GAIndividual individual : population) {
+			best = Math.max(best, individual.getValue());
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,32 @@
+package sat.metaheuristics;
+
+public class GenerationalReplacement extends ReplacementPolicy {
+	// The children replace the population, except for its best individuals,
+	// which fill the remaining places (elitism). There can't be more children
+	// than individuals.
+
+	@Override
+	public void replace(GAIndividual[] population, GAIndividual[] children, Ranking ranking) {
+		int elitism = population.length - children.length;
+		ranking.clear();
+		ranking.add(population);
+		ranking.selectBest(elitism);
+		// Store the best ones into the population array.
+		for (int i = 0; i < elitism; i++) {
+			population[i] = ranking.get(i);
+		}
+		// Fill the rest of the array with children.
+		for (int i = 0; i < children.length; i++) {
+			population[elitism + i] = children[i];
+		}
+		for (int i = 0; i < children.length; i++) {
+			children[i] = ranking.get(elitism + i);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Generational";
+	}
+
+}
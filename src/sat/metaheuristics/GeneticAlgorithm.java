@@ -1,18 +1,23 @@
 package sat.metaheuristics;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
-
-import java.util.Comparator;
 import java.util.List;
-
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.IntStream;
 
-import javafx.util.Pair;
+import sat.Assignment;
+import sat.BatchEvaluator;
 import sat.Formula;
+import sat.Preprocessor;
 import sat.heuristics.Heuristic;
+import sat.util.CancellationToken;
 import sat.util.DiscreteDistribution;
 import sat.util.Randomizer;
+import sat.util.StoppingCriteria;
 
 
 
@@ -26,12 +31,20 @@ public class GeneticAlgorithm{
 	
 	protected int numberOfPerformedIterations;
 	
+	// The individuals are allocated once per run. The children are written
+	// into the individuals which didn't survive the previous generation.
 	protected GAIndividual[] population;
-	protected List<Pair<GAIndividual, GAIndividual>> parents;
 	protected GAIndividual[] children;
+	// The indices of the parents of child i are parents[2*i] and parents[2*i+1].
+	protected int[] parents;
+	protected DiscreteDistribution selection;
+	
+	// How the next population is chosen from the current one and the children.
+	protected ReplacementPolicy replacementPolicy = new GenerationalReplacement();
+	protected Ranking ranking;
 	
 	protected double bestFoundValue;
-	protected int[] bestFoundSolution;
+	protected Assignment bestFoundSolution;
 	protected int firstIterationOfTheBestFound;
 	protected int currentIteration;
 	protected long startTime;
@@ -39,6 +52,64 @@ public class GeneticAlgorithm{
 	protected long timeOfTheBestFoundSolutuon;
 	
 	protected Heuristic heuristic = null;
+	
+	// The master seed, and the generators derived from it: one for the whole run
+	// and one for the current generation, from which every individual's
+	// heuristic invocation gets its own generator.
+	protected long seed = System.nanoTime();
+	protected Randomizer random;
+	protected Randomizer generationRandom;
+	protected Randomizer[] heuristicRandoms;
+	
+	// If true, whole populations are evaluated in one pass over the clauses.
+	protected boolean batchEvaluation = false;
+	protected BatchEvaluator batchEvaluator;
+	protected Assignment[] batchSolutions;
+	protected int[] batchValues;
+	
+	// The results of the heuristic (or of the evaluation, without a heuristic)
+	// for the assignments seen recently, if the cache size is positive.
+	// The cache is only accessed from the thread running the algorithm.
+	protected int improvementCacheSize = 0;
+	protected ImprovementCache improvementCache;
+	protected Assignment[] improvementInputs;
+	protected boolean[] cacheMisses;
+	
+	// The time spent in each phase and the work done, if the metrics are enabled.
+	// They are also printed every metricsInterval generations, if it is positive.
+	protected boolean metricsEnabled = false;
+	protected int metricsInterval = 0;
+	protected Metrics metrics = new Metrics(false);
+	
+	// The listeners of the progress, to which the dispatcher of the current run
+	// (if there are any listeners) hands the events over on its own thread.
+	protected List<ProgressListener> progressListeners = new ArrayList<>();
+	protected ProgressDispatcher progress;
+	protected long numberOfDroppedProgressEvents;
+	
+	// Where to save the state every checkpointInterval generations (if it is positive),
+	// and whether to resume the run from there.
+	protected Path checkpointPath = null;
+	protected int checkpointInterval = 0;
+	protected boolean resume = false;
+	protected Checkpoint checkpoint;
+	
+	// The preprocessing which produced the formula, through which
+	// the reported solution is mapped back to the original formula.
+	protected Preprocessor preprocessor;
+	
+	// A token through which another thread can stop the search,
+	// the other criteria which stop it, and the one which did.
+	protected CancellationToken cancellationToken = null;
+	protected StoppingCriteria stoppingCriteria = new StoppingCriteria();
+	protected StoppingCriteria.Criterion stoppingCriterion;
+	// The evaluations of individuals, including those by the heuristic. Only the thread
+	// running the algorithm counts them, but an island model reads those of its islands.
+	protected volatile long numberOfEvaluations;
+	
+	// The number of threads applying the heuristic and evaluating individuals.
+	protected int numberOfThreads = 1;
+	protected ForkJoinPool pool;
 
 	public GeneticAlgorithm(
 			int populationSize,
@@ -79,110 +150,337 @@ public class GeneticAlgorithm{
 		this.formula = formula;
 		// Clean the variables.
 		this.prepare();
+		this.startStoppingCriteria();
+		if (this.heuristic != null) {
+			this.heuristic.setStoppingCriteria(this.stoppingCriteria);
+		}
+		if (this.numberOfThreads > 1) {
+			this.pool = new ForkJoinPool(this.numberOfThreads);
+		}
+		this.startProgress(verbose);
+		if (this.checkpointPath != null && this.checkpointInterval > 0) {
+			this.checkpoint = new Checkpoint(this.checkpointPath);
+		}
+		try {
+			this.run();
+		} finally {
+			if (this.pool != null) {
+				this.pool.shutdown();
+				this.pool = null;
+			}
+			if (this.checkpoint != null) {
+				this.checkpoint.close();
+				this.checkpoint = null;
+			}
+			this.endProgress();
+		}
+	}
+	
+	protected void startStoppingCriteria() {
+		this.stoppingCriteria.start(this.cancellationToken);
+	}
+	
+	protected StoppingCriteria.Criterion findStoppingCriterion() {
+		// The satisfaction of the formula takes precedence over the criteria
+		// met by the heuristic while it was improving the satisfying solution.
+		if (this.formulaIsSatisfied()) {
+			return StoppingCriteria.Criterion.SATISFIED;
+		}
+		StoppingCriteria.Criterion criterion = this.stoppingCriteria.getMetCriterion();
+		return criterion == null? StoppingCriteria.Criterion.MAXIMAL_ITERATIONS : criterion;
+	}
+	
+	protected void startProgress(boolean verbose) {
+		// Start the delivery of the progress events, if anyone listens to them.
+		// Verbose runs print every generation to the console.
+		List<ProgressListener> listeners = new ArrayList<>(this.progressListeners);
+		if (verbose) {
+			listeners.add(new ConsoleProgressSink(0));
+		}
+		this.progress = listeners.isEmpty()? null : new ProgressDispatcher(listeners, "progress");
+	}
+	
+	protected void endProgress() {
+		// Report the termination, after which the dispatcher delivers the remaining events and stops.
+		if (this.progress != null) {
+			this.publishProgress(ProgressEvent.Kind.TERMINATED, this.numberOfPerformedIterations);
+			this.numberOfDroppedProgressEvents = this.progress.getNumberOfDroppedEvents();
+			this.progress = null;
+		}
+	}
+	
+	protected void publishProgress(ProgressEvent.Kind kind, int iteration) {
+		// Only the completed generations are published without the best found solution.
+		Assignment solution = null;
+		if (kind != ProgressEvent.Kind.GENERATION_COMPLETED && this.bestFoundSolution != null) {
+			solution = this.bestFoundSolution.copy();
+		}
+		double time = (System.nanoTime() - this.startTime) / 1000000000.0;
+		this.progress.publish(new ProgressEvent(kind, iteration, this.bestFoundValue, time, this.getNumberOfFlips(), solution));
+	}
+	
+	protected void run() {
 		// Remember the start time.
 		this.startTime = System.nanoTime();
-		// Initialize, improve, and evaluate the initial population.
-		this.initializePopulation();
-		this.evaluate(this.population);
-		this.applyHeuristic(this.population);
-		this.evaluate(this.population);
-		this.numberOfPerformedIterations = 0;
+		// Initialize, improve, and evaluate the initial population,
+		// unless the run continues from a checkpoint.
+		this.metrics.startLap();
+		if (!this.resumeFromCheckpoint()) {
+			this.initializePopulation();
+			this.metrics.lap(Metrics.INITIALIZATION);
+			this.evaluate(this.population);
+			this.metrics.lap(Metrics.EVALUATION);
+			this.applyHeuristic(this.population);
+			this.metrics.lap(Metrics.HEURISTIC);
+			this.evaluate(this.population);
+			this.metrics.lap(Metrics.EVALUATION);
+			this.numberOfPerformedIterations = 0;
+		}
 		// Run until the maximal number of iterations gets performed
 		// or the formula is satisfied.
-		for (int i = 1; i <= this.maximalNumberOfIterations && !this.formulaIsSatisfied(); i++) {
+		for (int i = this.numberOfPerformedIterations + 1; i <= this.maximalNumberOfIterations && !this.shouldStop(); i++) {
 			this.iteration(i);
-			if (verbose) {
-				System.out.println("Iteration " + i + ": " + this.bestFoundValue);
-			}
 			this.numberOfPerformedIterations = i;
+			if (this.checkpoint != null && i % this.checkpointInterval == 0) {
+				this.checkpoint.save(this);
+			}
+			if (this.progress != null) {
+				this.publishProgress(ProgressEvent.Kind.GENERATION_COMPLETED, i);
+			}
+			if (this.metricsEnabled && this.metricsInterval > 0 && i % this.metricsInterval == 0) {
+				System.out.println(this.metrics.toJson(i, (System.nanoTime() - this.startTime) / 1000000000.0, this.getNumberOfFlips()));
+			}
 		}
 		this.endTime = System.nanoTime();
+		this.stoppingCriterion = this.findStoppingCriterion();
+	}
+	
+	protected boolean resumeFromCheckpoint() {
+		// Restore the state saved in the checkpoint, if there is one to resume from.
+		if (!this.resume || this.checkpointPath == null || !Files.exists(this.checkpointPath)) {
+			return false;
+		}
+		try {
+			Checkpoint.restore(this, this.checkpointPath);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		// The time spent before the checkpoint counts towards the time limit.
+		this.stoppingCriteria.resume(this.startTime);
+		return true;
+	}
+	
+	protected boolean shouldStop() {
+		// Check if the search should stop before the next iteration.
+		if (this.formulaIsSatisfied()) {
+			return true;
+		}
+		return this.stoppingCriteria.isMet(this.getNumberOfFlips(), this.getNumberOfEvaluations(), this.bestFoundValue);
 	}
 	
 	protected boolean formulaIsSatisfied() {
-		return this.formula.isSatisfiedBy(this.bestFoundSolution);
+		// The best found value is computed from the number of satisfied clauses,
+		// so it is 1 exactly when they are all satisfied.
+		return this.bestFoundValue >= 1.0;
 	}
 
 	protected void iteration(int i) {
 		this.currentIteration = i;
+		this.random.split(this.generationRandom);
+		GenerationEvent event = GenerationEvent.begin(this.population);
+		this.metrics.startLap();
 		this.selectParents();
+		this.metrics.lap(Metrics.SELECTION);
 		this.performCrossovers();
+		this.metrics.lap(Metrics.CROSSOVER);
 		this.mutateChildren();
+		this.metrics.lap(Metrics.MUTATION);
 		this.applyHeuristic(this.children);
+		this.metrics.lap(Metrics.HEURISTIC);
 		this.evaluate(this.children);
+		this.metrics.lap(Metrics.EVALUATION);
+		if (event != null) {
+			event.countImprovedChildren(this.children);
+		}
 		this.createNewPopulation();
+		this.metrics.lap(Metrics.REPLACEMENT);
+		if (event != null) {
+			event.end(i, this.population);
+		}
 	}
 	
 	protected void prepare() {
 		// Clean the variables used throughout execution to make sure
 		// that the run about to start is independent from the previous one.
 		this.children = new GAIndividual[this.numberOfCrossovers];
+		for (int i = 0; i < this.children.length; i++) {
+			this.children[i] = new GAIndividual(this.formula);
+			this.children[i].setSolution(new Assignment(this.formula.getNumberOfLetters()));
+		}
 		this.population = new GAIndividual[this.populationSize];
+		this.parents = new int[2 * this.numberOfCrossovers];
+		this.selection = new DiscreteDistribution(this.populationSize);
+		this.ranking = new Ranking(this.populationSize + this.numberOfCrossovers);
 		this.bestFoundValue = -1;
 		this.firstIterationOfTheBestFound = -1;
 		this.bestFoundSolution = null;
 		this.currentIteration = 0;
 		this.startTime = System.nanoTime();
 		this.endTime = System.nanoTime();
+		if (this.batchEvaluation) {
+			int size = Math.max(this.populationSize, this.numberOfCrossovers);
+			this.batchEvaluator = new BatchEvaluator(this.formula);
+			this.batchSolutions = new Assignment[size];
+			this.batchValues = new int[size];
+		}
+		this.improvementCache = null;
+		this.cacheMisses = new boolean[Math.max(this.populationSize, this.numberOfCrossovers)];
+		if (this.improvementCacheSize > 0) {
+			this.improvementCache = new ImprovementCache(this.improvementCacheSize);
+			this.improvementInputs = new Assignment[this.cacheMisses.length];
+			for (int i = 0; i < this.improvementInputs.length; i++) {
+				this.improvementInputs[i] = new Assignment(this.formula.getNumberOfLetters());
+			}
+		}
+		this.heuristicRandoms = new Randomizer[Math.max(this.populationSize, this.numberOfCrossovers)];
+		for (int i = 0; i < this.heuristicRandoms.length; i++) {
+			this.heuristicRandoms[i] = new Randomizer(0);
+		}
+		this.random = new Randomizer(this.seed);
+		this.generationRandom = this.random.split();
+		this.metrics = new Metrics(this.metricsEnabled);
+		this.numberOfEvaluations = 0;
+		this.stoppingCriterion = null;
 
 	}
 
 	protected void initializePopulation() {
 		for(int i=0; i < this.population.length; i++) {
 			this.population[i] = new GAIndividual(this.formula);
-			this.population[i].initialize();
+			this.population[i].initialize(this.generationRandom);
 		}
 	}
 	
 	protected void evaluate(GAIndividual individual) {
+		this.countEvaluation(individual);
 		individual.evaluate();
+		this.updateBestFound(individual);
+	}
+	
+	protected void countEvaluation(GAIndividual individual) {
+		// Count the evaluation of the individual, if it isn't up to date already.
+		if (!individual.isEvaluated()) {
+			this.numberOfEvaluations++;
+			this.metrics.countEvaluation(individual);
+		}
+	}
+	
+	protected void updateBestFound(GAIndividual individual) {
 		double value = individual.getValue();
 		if (value > this.bestFoundValue) {
 			// If a solution better than the currently best found has been discovered
 			// remember it and its details (value, iteration number, time).
 			this.bestFoundValue = value;
-			this.bestFoundSolution = individual.getSolution().clone(); //copy()
+			if (this.bestFoundSolution == null) {
+				this.bestFoundSolution = individual.getSolution().copy();
+			} else {
+				this.bestFoundSolution.copyFrom(individual.getSolution());
+			}
 			this.firstIterationOfTheBestFound = this.currentIteration;
 			this.timeOfTheBestFoundSolutuon = System.nanoTime();
+			if (this.progress != null) {
+				this.publishProgress(ProgressEvent.Kind.NEW_BEST_FOUND, this.currentIteration);
+				if (this.formulaIsSatisfied()) {
+					this.publishProgress(ProgressEvent.Kind.SATISFIED, this.currentIteration);
+				}
+			}
 		}
 	 }
 	
 	protected void evaluate(GAIndividual individuals[]) {
+		// Without a heuristic, the cache holds the numbers of satisfied clauses
+		// of the evaluated assignments. It is consulted and filled in order,
+		// before and after the evaluation, to be independent of the threads.
+		boolean useCache = this.improvementCache != null && this.heuristic == null;
+		if (useCache) {
+			for (int i = 0; i < individuals.length; i++) {
+				this.cacheMisses[i] = individuals[i].needsFullEvaluation() && !individuals[i].lookUp(this.improvementCache);
+			}
+		}
+		if (this.batchEvaluation) {
+			this.evaluateBatch(individuals);
+		} else if (this.pool != null) {
+			this.evaluateInParallel(individuals);
+		} else {
+			for (GAIndividual individual : individuals) {
+				this.evaluate(individual);
+				if (this.formulaIsSatisfied()) {
+					break;
+				}
+			}
+		}
+		if (useCache) {
+			for (int i = 0; i < individuals.length; i++) {
+				// The individuals after the one satisfying the formula may not have been evaluated.
+				if (this.cacheMisses[i] && !individuals[i].needsFullEvaluation()) {
+					Assignment solution = individuals[i].getSolution();
+					this.improvementCache.store(solution, solution, individuals[i].getNumberOfSatisfied());
+				}
+			}
+		}
+	}
+	
+
+	protected void evaluateBatch(GAIndividual individuals[]) {
+		// Evaluate the individuals which need a full evaluation in one pass
+		// over the clauses, and update the others from their cached values.
+		// Then look for the best one in the same order as evaluate does.
+		int count = 0;
+		for (int i = 0; i < individuals.length; i++) {
+			if (individuals[i].needsFullEvaluation()) {
+				this.countEvaluation(individuals[i]);
+				this.batchSolutions[count++] = individuals[i].getSolution();
+			}
+		}
+		if (count > 0) {
+			this.batchEvaluator.evaluate(this.batchSolutions, count, this.batchValues);
+		}
+		count = 0;
+		for (int i = 0; i < individuals.length; i++) {
+			if (individuals[i].needsFullEvaluation()) {
+				individuals[i].setNumberOfSatisfied(this.batchValues[count++]);
+			} else {
+				this.countEvaluation(individuals[i]);
+				individuals[i].evaluate();
+			}
+			this.updateBestFound(individuals[i]);
+			if (this.formulaIsSatisfied()) {
+				break;
+			}
+		}
+	}
+
+	protected void evaluateInParallel(GAIndividual individuals[]) {
+		// Evaluate the individuals on the pool's threads, then look for the best one
+		// on this thread in the same order as evaluate does, so that the best found
+		// solution is updated without races and independently of the scheduling.
+		for (GAIndividual individual : individuals) {
+			this.countEvaluation(individual);
+		}
+		this.pool.submit(() -> IntStream.range(0, individuals.length).parallel()
+				.forEach(i -> individuals[i].evaluate())).join();
 		for (GAIndividual individual : individuals) {
-			this.evaluate(individual);
+			this.updateBestFound(individual);
 			if (this.formulaIsSatisfied()) {
 				break;
 			}
 		}
 	}
-	
 
 	protected void createNewPopulation() {
 		// Combine the population of children with some individuals
 		// from the generation of their parents.
-		
-		int elitism = this.populationSize - this.numberOfCrossovers;
-		
-		// Find the best individuals in the parent generation
-		GAIndividual[] old = Arrays.stream(this.population).sorted(new Comparator<GAIndividual>() {
-			public int compare(GAIndividual o1, GAIndividual o2) {
-				if (o1.getValue() < o2.getValue()) {
-					return +1;
-				} else if (o1.getValue() > o2.getValue()) {
-					return -1;
-				}
-				return 0;
-			}
-		}).limit(elitism).toArray(GAIndividual[]::new);
-		// Store them into the population array.
-		for (int i = 0; i < old.length; i++) {
-			this.population[i] = old[i];
-		}
-		// Fill the rest of the array with children.
-		for (int i = 0; i < this.children.length; i++) {
-			this.population[old.length + i] = this.children[i];
-		}
-		
+		this.replacementPolicy.replace(this.population, this.children, this.ranking);
 	}
 
 	protected void applyHeuristic(GAIndividual[] individuals) {
@@ -190,17 +488,59 @@ public class GeneticAlgorithm{
 		if (this.heuristic == null) {
 			return;
 		}
-		for (GAIndividual individual : individuals) {
-			individual.applyHeuristic(this.heuristic);
+		// Each individual is improved with its own generator, split from
+		// the generation's one in order, so that the results don't depend
+		// on the number of threads or on how the work is scheduled.
+		for (int i = 0; i < individuals.length; i++) {
+			this.generationRandom.split(this.heuristicRandoms[i]);
+		}
+		// The individuals whose improvements are cached are not improved again.
+		// The cache is consulted and filled in order, to be independent of the threads.
+		ImprovementCache cache = this.improvementCache;
+		int numberOfInvocations = individuals.length;
+		if (cache != null) {
+			for (int i = 0; i < individuals.length; i++) {
+				this.cacheMisses[i] = !individuals[i].lookUp(cache);
+				if (this.cacheMisses[i]) {
+					this.improvementInputs[i].copyFrom(individuals[i].getSolution());
+				} else {
+					numberOfInvocations--;
+				}
+			}
+		}
+		this.numberOfEvaluations += numberOfInvocations;
+		this.metrics.countHeuristicInvocations(numberOfInvocations);
+		if (this.pool != null) {
+			this.pool.submit(() -> IntStream.range(0, individuals.length).parallel()
+					.filter(i -> cache == null || this.cacheMisses[i])
+					.forEach(i -> individuals[i].applyHeuristic(this.heuristic, this.heuristicRandoms[i]))).join();
+		} else {
+			for (int i = 0; i < individuals.length; i++) {
+				if (cache == null || this.cacheMisses[i]) {
+					individuals[i].applyHeuristic(this.heuristic, this.heuristicRandoms[i]);
+				}
+			}
+		}
+		if (cache != null) {
+			for (int i = 0; i < individuals.length; i++) {
+				if (this.cacheMisses[i]) {
+					// An improved assignment is also remembered as its own improvement,
+					// so that copies of the individuals aren't improved again.
+					Assignment solution = individuals[i].getSolution();
+					int numberOfSatisfied = individuals[i].getNumberOfSatisfied();
+					cache.store(this.improvementInputs[i], solution, numberOfSatisfied);
+					cache.store(solution, solution, numberOfSatisfied);
+				}
+			}
 		}
 	}
 
 	protected void mutateChildren() {
 		// Randomly select individuals for mutation
 		for(int i = 0; i < this.children.length; i++) {
-			if (Randomizer.getDouble() < this.individualMutationProbability) {
+			if (this.generationRandom.getDouble() < this.individualMutationProbability) {
 				// Trigger gene mutation.
-				this.children[i].mutate(this.geneMutationProbability);
+				this.children[i].mutate(this.geneMutationProbability, this.generationRandom);
 			}
 		}
 		
@@ -208,40 +548,35 @@ public class GeneticAlgorithm{
 
 	protected void performCrossovers() {
 		// Perform uniform crossovers on the pairs of parents.
-		for (int i = 0; i < this.parents.size(); i++) {
-			Pair<GAIndividual,GAIndividual> pair = this.parents.get(i);
-			GAIndividual parent1 = pair.getKey();
-			GAIndividual parent2 = pair.getValue();
-			GAIndividual child = parent1.crossover(parent2);
-			this.children[i] = child;
+		for (int i = 0; i < this.numberOfCrossovers; i++) {
+			GAIndividual parent1 = this.population[this.parents[2 * i]];
+			GAIndividual parent2 = this.population[this.parents[2 * i + 1]];
+			parent1.crossover(parent2, this.children[i], this.generationRandom);
 		}
 		
 	}
 
 	protected void selectParents() {
-		this.parents = new ArrayList<Pair<GAIndividual, GAIndividual>>(this.numberOfCrossovers);
-		double[] values = new double[this.population.length];
 		// Use the individuals' fitness values as weights 
 		// to create a discrete distribution over them.
+		// Many parents are drawn from it, so it is turned into an alias table.
+		this.selection.reset();
 		for(int i = 0; i < this.population.length; i++) {
-			values[i] = this.population[i].getValue();
+			this.selection.add(this.population[i].getValue());
 		}
-		
-		Integer[] indices = IntStream.range(0, this.population.length).boxed().toArray(Integer[]::new);
-		DiscreteDistribution<Integer> dist = new DiscreteDistribution<Integer>(indices,  values);
+		this.selection.buildAliasTable();
 		
 		for(int i = 0; i < this.numberOfCrossovers; i++) {
 			// Randomly draw two individuals from the distribution.
-			int j1 = dist.draw();
-			int j2 = dist.draw();
+			int j1 = this.selection.draw(this.generationRandom);
+			int j2 = this.selection.draw(this.generationRandom);
 			// Make sure that they are different.
 			while (j2 == j1) {
-				j2 = dist.draw();
+				j2 = this.selection.draw(this.generationRandom);
 			}
 			// Pair them.
-			GAIndividual parent1 = this.population[j1];
-			GAIndividual parent2 = this.population[j2];
-			parents.add(new Pair<GAIndividual, GAIndividual>(parent1, parent2));
+			this.parents[2 * i] = j1;
+			this.parents[2 * i + 1] = j2;
 		}
 	}
 
@@ -249,12 +584,72 @@ public class GeneticAlgorithm{
 		this.heuristic = heuristic;
 	}
 
+	public void addProgressListener(ProgressListener listener) {
+		this.progressListeners.add(listener);
+	}
+
+	public void removeProgressListener(ProgressListener listener) {
+		this.progressListeners.remove(listener);
+	}
+
+	public void setReplacementPolicy(ReplacementPolicy replacementPolicy) {
+		this.replacementPolicy = replacementPolicy;
+	}
+
+	public void setImprovementCacheSize(int improvementCacheSize) {
+		this.improvementCacheSize = improvementCacheSize;
+	}
+
+	public void setBatchEvaluation(boolean batchEvaluation) {
+		this.batchEvaluation = batchEvaluation;
+	}
+
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+	}
+
+	public void setMetricsInterval(int metricsInterval) {
+		this.metricsInterval = metricsInterval;
+	}
+
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+
+	public void setPreprocessor(Preprocessor preprocessor) {
+		this.preprocessor = preprocessor;
+	}
+
+	public void setCheckpointPath(Path checkpointPath) {
+		this.checkpointPath = checkpointPath;
+	}
+
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	public void setResume(boolean resume) {
+		this.resume = resume;
+	}
+
+	public void setStoppingCriteria(StoppingCriteria stoppingCriteria) {
+		this.stoppingCriteria = stoppingCriteria;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 
 	public double getBestFoundValue() {
 		return this.bestFoundValue;
 	}
 	
-	public int[] getBestFoundSolution() {
+	public Assignment getBestFoundSolution() {
 		return this.bestFoundSolution;
 	}
 	
@@ -266,6 +661,53 @@ public class GeneticAlgorithm{
 		return numberOfPerformedIterations;
 	}
 
+	public double getTimeOfTheBestFoundSolution() {
+		// The time of the best found solution in seconds since the start.
+		return (this.timeOfTheBestFoundSolutuon - this.startTime) / 1000000000.0;
+	}
+
+	public double getDuration() {
+		// The duration of the run in seconds.
+		return (this.endTime - this.startTime) / 1000000000.0;
+	}
+
+	public long getNumberOfEvaluations() {
+		return this.numberOfEvaluations;
+	}
+
+	public StoppingCriteria.Criterion getStoppingCriterion() {
+		// The reason why the last run stopped.
+		return this.stoppingCriterion;
+	}
+
+	public long getNumberOfDroppedProgressEvents() {
+		// The completed generations (and, if the listeners are very slow,
+		// other events) which were not delivered during the last run.
+		return this.numberOfDroppedProgressEvents;
+	}
+
+	public long getNumberOfCacheHits() {
+		return this.improvementCache == null? 0 : this.improvementCache.getNumberOfHits();
+	}
+
+	public long getNumberOfCacheMisses() {
+		return this.improvementCache == null? 0 : this.improvementCache.getNumberOfMisses();
+	}
+
+	public long getNumberOfFlips() {
+		// The number of flips performed by the heuristic.
+		return this.heuristic == null? 0 : this.heuristic.getNumberOfFlips();
+	}
+
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
+	public String reportMetrics() {
+		// Report the metrics of the run as a line of JSON.
+		return this.getMetrics().toJson(this.numberOfPerformedIterations, this.getDuration(), this.getNumberOfFlips());
+	}
+
 	@Override
 	public String toString() {
 		return this.describe() + "\n'---Subordinate heuristic: " + this.heuristic;
@@ -280,14 +722,28 @@ public class GeneticAlgorithm{
 	public String report() {
 		// Report the results alongside with other details.
 		String format = "The best found solution: %s\nThe best found value: %.5f\nThe first iteration of BFS: %d\nTime of the best found solution (seconds): %.5f\nTotal number of iterations: %d\nDuration (seconds): %.5f";
-		return String.format(format, 
-				Arrays.toString(this.bestFoundSolution),
+		Assignment solution = this.bestFoundSolution;
+		if (this.preprocessor != null && solution != null) {
+			solution = this.preprocessor.reconstruct(solution);
+		}
+		String report = String.format(format, 
+				solution,
 				this.bestFoundValue,
 				this.firstIterationOfTheBestFound,
-				(this.timeOfTheBestFoundSolutuon - this.startTime) / 1000000000.0,
+				this.getTimeOfTheBestFoundSolution(),
 				this.numberOfPerformedIterations,
-				(this.endTime - this.startTime) / 1000000000.0
+				this.getDuration()
 			);
+		report += "\nStopping criterion: " + this.getStoppingCriterion();
+		long numberOfHits = this.getNumberOfCacheHits();
+		long numberOfMisses = this.getNumberOfCacheMisses();
+		if (numberOfHits + numberOfMisses > 0) {
+			report += String.format("\nImprovement cache hits: %d, misses: %d", numberOfHits, numberOfMisses);
+		}
+		if (this.preprocessor != null && solution != null) {
+			report += String.format("\nThe value on the original formula: %.5f", this.preprocessor.getFormula().getPercentageOfSatisfied(solution));
+		}
+		return report;
 	}
 }
 	
@@ -0,0 +1,128 @@
+package sat.metaheuristics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import sat.Assignment;
+
+public class ImprovementCache {
+	// This class remembers the results of the heuristic: it maps an assignment
+	// to its improved assignment and the number of clauses the latter satisfies.
+	// Without a heuristic, every assignment is its own improvement, so the cache
+	// remembers the numbers of satisfied clauses of the evaluated assignments.
+	//
+	// Like a transposition table, the cache is a fixed-size array indexed by
+	// the Zobrist hashes of the assignments, where a new entry evicts the one
+	// in its slot. The assignment of an entry is compared with the one looked up,
+	// so colliding hashes never produce a wrong result. The assignments of a slot
+	// are allocated when it is first used, and overwritten afterwards.
+	private long[] hashes;
+	private Assignment[] inputs;
+	private Assignment[] outputs;
+	private int[] numbersOfSatisfied;
+	private int mask;
+
+	private long numberOfHits;
+	private long numberOfMisses;
+
+	public ImprovementCache(int capacity) {
+		// The capacity is rounded up to a power of two.
+		int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		this.hashes = new long[size];
+		this.inputs = new Assignment[size];
+		this.outputs = new Assignment[size];
+		this.numbersOfSatisfied = new int[size];
+		this.mask = size - 1;
+	}
+
+	private int slot(long hash) {
+		// Mix the upper bits in, as the lower bits alone may be correlated.
+		return (int) (hash ^ (hash >>> 32)) & this.mask;
+	}
+
+	public int lookUp(Assignment solution) {
+		// If the solution is in the cache, overwrite it with its improvement
+		// and return the number of clauses that satisfies, otherwise return -1.
+		long hash = solution.getHash();
+		int slot = this.slot(hash);
+		if (this.inputs[slot] != null && this.hashes[slot] == hash && this.inputs[slot].equals(solution)) {
+			this.numberOfHits++;
+			solution.copyFrom(this.outputs[slot]);
+			return this.numbersOfSatisfied[slot];
+		}
+		this.numberOfMisses++;
+		return -1;
+	}
+
+	public void store(Assignment input, Assignment output, int numberOfSatisfied) {
+		// Remember the improvement of the input, evicting the entry in its slot.
+		int slot = this.slot(input.getHash());
+		if (this.inputs[slot] == null) {
+			this.inputs[slot] = input.copy();
+			this.outputs[slot] = output.copy();
+		} else {
+			this.inputs[slot].copyFrom(input);
+			this.outputs[slot].copyFrom(output);
+		}
+		this.hashes[slot] = input.getHash();
+		this.numbersOfSatisfied[slot] = numberOfSatisfied;
+	}
+
+	int getNumberOfBytes() {
+		// The number of bytes written by writeTo.
+		int size = 4 + 8 + 8 + this.inputs.length;
+		for (int slot = 0; slot < this.inputs.length; slot++) {
+			if (this.inputs[slot] != null) {
+				size += 8 + 4 + this.inputs[slot].getNumberOfBytes() + this.outputs[slot].getNumberOfBytes();
+			}
+		}
+		return size;
+	}
+
+	void writeTo(ByteBuffer buffer) {
+		// Store the entries and the counters, for a checkpoint.
+		buffer.putInt(this.inputs.length);
+		buffer.putLong(this.numberOfHits);
+		buffer.putLong(this.numberOfMisses);
+		for (int slot = 0; slot < this.inputs.length; slot++) {
+			buffer.put((byte) (this.inputs[slot] == null? 0 : 1));
+			if (this.inputs[slot] != null) {
+				buffer.putLong(this.hashes[slot]);
+				buffer.putInt(this.numbersOfSatisfied[slot]);
+				this.inputs[slot].writeTo(buffer);
+				this.outputs[slot].writeTo(buffer);
+			}
+		}
+	}
+
+	void readFrom(ByteBuffer buffer, int numberOfLetters) throws IOException {
+		// Restore the entries and the counters stored by writeTo in a cache of the same size.
+		if (buffer.getInt() != this.inputs.length) {
+			throw new IOException("The size of the improvement cache differs from the checkpoint.");
+		}
+		this.numberOfHits = buffer.getLong();
+		this.numberOfMisses = buffer.getLong();
+		for (int slot = 0; slot < this.inputs.length; slot++) {
+			if (buffer.get() == 0) {
+				this.inputs[slot] = null;
+				this.outputs[slot] = null;
+				continue;
+			}
+			this.hashes[slot] = buffer.getLong();
+			this.numbersOfSatisfied[slot] = buffer.getInt();
+			this.inputs[slot] = new Assignment(numberOfLetters);
+			this.inputs[slot].readFrom(buffer);
+			this.outputs[slot] = new Assignment(numberOfLetters);
+			this.outputs[slot].readFrom(buffer);
+		}
+	}
+
+	public long getNumberOfHits() {
+		return this.numberOfHits;
+	}
+
+	public long getNumberOfMisses() {
+		return this.numberOfMisses;
+	}
+
+}
@@ -0,0 +1,110 @@
+package sat.metaheuristics;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class Island extends GeneticAlgorithm {
+	// This class represents one of the populations evolved by an island model.
+	// Every few generations, it sends copies of its best individuals to its
+	// neighbours and replaces its worst individuals with those it received.
+	private IslandModel model;
+	private int index;
+	private Island[] neighbours = new Island[0];
+	private ConcurrentLinkedQueue<GAIndividual> immigrants = new ConcurrentLinkedQueue<>();
+	private boolean[] chosen;
+
+	Island(IslandModel model, int index) {
+		super(model.populationSize,
+			  model.individualMutationProbability,
+			  model.geneMutationProbability,
+			  model.numberOfCrossovers,
+			  model.maximalNumberOfIterations);
+		this.model = model;
+		this.index = index;
+		this.replacementPolicy = model.replacementPolicy;
+		this.improvementCacheSize = model.improvementCacheSize;
+		this.metricsEnabled = model.metricsEnabled;
+		this.metricsInterval = model.metricsInterval;
+		// The islands share the model's criteria, which the model starts.
+		this.stoppingCriteria = model.stoppingCriteria;
+	}
+
+	void setNeighbours(Island[] neighbours) {
+		this.neighbours = neighbours;
+	}
+
+	int getIndex() {
+		return this.index;
+	}
+
+	int getCurrentIteration() {
+		return this.currentIteration;
+	}
+
+	@Override
+	protected void iteration(int i) {
+		super.iteration(i);
+		if (i % this.model.migrationInterval == 0) {
+			this.migrate();
+			this.metrics.lap(Metrics.MIGRATION);
+		}
+		this.model.generationCompleted(i);
+	}
+
+	@Override
+	protected void startStoppingCriteria() {
+	}
+
+	@Override
+	protected boolean shouldStop() {
+		// Stop as soon as any island has satisfied the formula,
+		// or the criteria are met by the islands together.
+		return this.model.isSolved() || this.model.shouldStop();
+	}
+
+	@Override
+	protected void updateBestFound(GAIndividual individual) {
+		double previous = this.bestFoundValue;
+		super.updateBestFound(individual);
+		if (this.bestFoundValue > previous) {
+			this.model.updateGlobalBest(this);
+		}
+	}
+
+	private void migrate() {
+		// Send the best individuals to the neighbours.
+		int numberOfMigrants = Math.min(this.model.numberOfMigrants, this.population.length);
+		if (this.chosen == null || this.chosen.length != this.population.length) {
+			this.chosen = new boolean[this.population.length];
+		}
+		boolean[] chosen = this.chosen;
+		Arrays.fill(chosen, false);
+		for (int m = 0; m < numberOfMigrants; m++) {
+			int best = -1;
+			for (int j = 0; j < this.population.length; j++) {
+				if (!chosen[j] && (best < 0 || this.population[j].getValue() > this.population[best].getValue())) {
+					best = j;
+				}
+			}
+			chosen[best] = true;
+			for (Island neighbour : this.neighbours) {
+				neighbour.immigrants.offer(this.population[best].clone());
+			}
+		}
+
+		// Replace the worst individuals with those received so far.
+		GAIndividual immigrant;
+		while ((immigrant = this.immigrants.poll()) != null) {
+			int worst = 0;
+			for (int j = 1; j < this.population.length; j++) {
+				if (this.population[j].getValue() < this.population[worst].getValue()) {
+					worst = j;
+				}
+			}
+			if (immigrant.getValue() > this.population[worst].getValue()) {
+				this.population[worst].copyFrom(immigrant);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+package sat.metaheuristics;
+
+import sat.Formula;
+import sat.heuristics.Heuristic;
+
+public class IslandModel extends GeneticAlgorithm {
+	// This class evolves several populations (islands) concurrently, each on its
+	// own thread and with its own heuristic. The islands periodically exchange
+	// their best individuals through lock-free queues, following a ring
+	// or a fully connected topology. The best solution over all the islands
+	// is tracked as they run, and they all stop when one satisfies the formula.
+	// Since migration is asynchronous, runs are not reproducible from the seed alone.
+	public enum Topology { RING, FULL }
+
+	protected int numberOfIslands;
+	protected int migrationInterval;
+	protected int numberOfMigrants;
+	protected Topology topology;
+	protected Heuristic[] heuristics;
+
+	private Island[] islands;
+	private volatile boolean solved;
+	private int completedGeneration;
+
+	public IslandModel(
+			int populationSize,
+			double individualMutationProbability,
+			double geneMutationProbability,
+			int numberOfCrossovers,
+			int maximalNumberOfIterations,
+			int numberOfIslands,
+			int migrationInterval,
+			int numberOfMigrants,
+			Topology topology) {
+		super(populationSize,
+			  individualMutationProbability,
+			  geneMutationProbability,
+			  numberOfCrossovers,
+			  maximalNumberOfIterations);
+		this.numberOfIslands = numberOfIslands;
+		this.migrationInterval = migrationInterval;
+		this.numberOfMigrants = numberOfMigrants;
+		this.topology = topology;
+	}
+
+	public void setHeuristics(Heuristic[] heuristics) {
+		// Island i uses heuristics[i]. The heuristics count their flips and keep
+		// their evaluators, so every island needs an instance of its own.
+		if (heuristics.length != this.numberOfIslands) {
+			throw new IllegalArgumentException("There must be one heuristic per island.");
+		}
+		this.heuristics = heuristics;
+	}
+
+	@Override
+	public void solve(Formula formula, boolean verbose) {
+		this.formula = formula;
+		this.prepare();
+		this.solved = false;
+		this.completedGeneration = 0;
+		this.startTime = System.nanoTime();
+		this.startStoppingCriteria();
+		this.createIslands();
+		this.startProgress(verbose);
+		try {
+			this.runIslands(formula);
+		} finally {
+			this.endProgress();
+		}
+	}
+
+	private void runIslands(Formula formula) {
+		// Run each island on its own thread. Their progress is reported by the model.
+		Thread[] threads = new Thread[this.numberOfIslands];
+		Throwable[] failures = new Throwable[this.numberOfIslands];
+		for (int k = 0; k < this.numberOfIslands; k++) {
+			Island island = this.islands[k];
+			threads[k] = new Thread(() -> {
+				try {
+					island.solve(formula, false);
+				} catch (Throwable e) {
+					failures[island.getIndex()] = e;
+					this.solved = true;
+				}
+			}, "island-" + k);
+			threads[k].start();
+		}
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.solved = true;
+			}
+		}
+		for (Throwable failure : failures) {
+			if (failure != null) {
+				throw new RuntimeException("An island failed.", failure);
+			}
+		}
+
+		this.numberOfPerformedIterations = 0;
+		for (Island island : this.islands) {
+			this.numberOfPerformedIterations = Math.max(this.numberOfPerformedIterations, island.getNumberOfPerformedIterations());
+		}
+		this.endTime = System.nanoTime();
+		this.stoppingCriterion = this.findStoppingCriterion();
+	}
+
+	private void createIslands() {
+		this.islands = new Island[this.numberOfIslands];
+		for (int k = 0; k < this.numberOfIslands; k++) {
+			Island island = new Island(this, k);
+			island.setSeed(this.random.getLong());
+			if (this.heuristics != null) {
+				island.setHeuristic(this.heuristics[k]);
+			}
+			island.setBatchEvaluation(this.batchEvaluation);
+			island.setCancellationToken(this.cancellationToken);
+			this.islands[k] = island;
+		}
+		// Connect the islands.
+		for (int k = 0; k < this.numberOfIslands; k++) {
+			Island[] neighbours;
+			if (this.numberOfIslands == 1) {
+				neighbours = new Island[0];
+			} else if (this.topology == Topology.RING) {
+				neighbours = new Island[] { this.islands[(k + 1) % this.numberOfIslands] };
+			} else {
+				neighbours = new Island[this.numberOfIslands - 1];
+				for (int j = 0, n = 0; j < this.numberOfIslands; j++) {
+					if (j != k) {
+						neighbours[n++] = this.islands[j];
+					}
+				}
+			}
+			this.islands[k].setNeighbours(neighbours);
+		}
+	}
+
+	synchronized void updateGlobalBest(Island island) {
+		// Remember the island's best solution if it is the best one overall.
+		if (island.getBestFoundValue() > this.bestFoundValue) {
+			this.bestFoundValue = island.getBestFoundValue();
+			if (this.bestFoundSolution == null) {
+				this.bestFoundSolution = island.getBestFoundSolution().copy();
+			} else {
+				this.bestFoundSolution.copyFrom(island.getBestFoundSolution());
+			}
+			this.firstIterationOfTheBestFound = island.getCurrentIteration();
+			this.timeOfTheBestFoundSolutuon = System.nanoTime();
+			if (this.progress != null) {
+				this.publishProgress(ProgressEvent.Kind.NEW_BEST_FOUND, island.getCurrentIteration());
+			}
+			if (this.formulaIsSatisfied()) {
+				this.solved = true;
+				if (this.progress != null) {
+					this.publishProgress(ProgressEvent.Kind.SATISFIED, island.getCurrentIteration());
+				}
+			}
+		}
+	}
+
+	synchronized void generationCompleted(int iteration) {
+		// Publish a generation once the first island has completed it,
+		// the way the iterations of the model are those of its furthest island.
+		if (this.progress != null && iteration > this.completedGeneration) {
+			this.completedGeneration = iteration;
+			this.publishProgress(ProgressEvent.Kind.GENERATION_COMPLETED, iteration);
+		}
+	}
+
+	@Override
+	protected synchronized boolean shouldStop() {
+		// Called by the islands. The best found value is updated under the lock,
+		// and the counters of the islands can be read while they run.
+		return super.shouldStop();
+	}
+
+	boolean isSolved() {
+		return this.solved;
+	}
+
+	@Override
+	public long getNumberOfFlips() {
+		long numberOfFlips = 0;
+		if (this.islands != null) {
+			for (Island island : this.islands) {
+				numberOfFlips += island.getNumberOfFlips();
+			}
+		}
+		return numberOfFlips;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		// The metrics of all the islands. The islands run concurrently,
+		// so the phases can add up to more than the duration.
+		Metrics metrics = new Metrics(this.metricsEnabled);
+		if (this.islands != null) {
+			for (Island island : this.islands) {
+				metrics.add(island.getMetrics());
+			}
+		}
+		return metrics;
+	}
+
+	@Override
+	public long getNumberOfEvaluations() {
+		long numberOfEvaluations = 0;
+		if (this.islands != null) {
+			for (Island island : this.islands) {
+				numberOfEvaluations += island.getNumberOfEvaluations();
+			}
+		}
+		return numberOfEvaluations;
+	}
+
+	@Override
+	public long getNumberOfCacheHits() {
+		// Every island has its own cache.
+		long numberOfHits = 0;
+		if (this.islands != null) {
+			for (Island island : this.islands) {
+				numberOfHits += island.getNumberOfCacheHits();
+			}
+		}
+		return numberOfHits;
+	}
+
+	@Override
+	public long getNumberOfCacheMisses() {
+		long numberOfMisses = 0;
+		if (this.islands != null) {
+			for (Island island : this.islands) {
+				numberOfMisses += island.getNumberOfCacheMisses();
+			}
+		}
+		return numberOfMisses;
+	}
+
+	@Override
+	public String describe() {
+		String formatString = "Islands[Number of islands = %d, Topology = %s, Migration interval = %d, Migrants = %d] of %s";
+		return String.format(formatString, numberOfIslands, topology, migrationInterval, numberOfMigrants, super.describe());
+	}
+
+	@Override
+	public String toString() {
+		if (this.heuristics == null) {
+			return super.toString();
+		}
+		StringBuilder description = new StringBuilder(this.describe());
+		for (int k = 0; k < this.numberOfIslands; k++) {
+			description.append("\n'---Heuristic of island ").append(k).append(": ").append(this.heuristics[k]);
+		}
+		return description.toString();
+	}
+
+}
@@ -0,0 +1,66 @@
+package sat.metaheuristics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public class JsonLinesProgressSink implements ProgressListener {
+	// This listener writes every event as a line of JSON, flushed at once,
+	// so that other processes can follow the run. The solutions are written
+	// as the lists of their values. The file is closed when the run terminates.
+	private Writer output;
+	private boolean includeSolutions;
+
+	public JsonLinesProgressSink(Path path, boolean includeSolutions) throws IOException {
+		this.output = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+		this.includeSolutions = includeSolutions;
+	}
+
+	@Override
+	public void generationCompleted(ProgressEvent event) {
+		this.write(event);
+	}
+
+	@Override
+	public void newBestFound(ProgressEvent event) {
+		this.write(event);
+	}
+
+	@Override
+	public void satisfied(ProgressEvent event) {
+		this.write(event);
+	}
+
+	@Override
+	public void terminated(ProgressEvent event) {
+		this.write(event);
+		try {
+			this.output.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void write(ProgressEvent event) {
+		StringBuilder line = new StringBuilder("{\"event\": \"").append(event.getKind()).append('"');
+		line.append(", \"iteration\": ").append(event.getIteration());
+		line.append(", \"bestFoundValue\": ").append(String.format(Locale.ROOT, "%.5f", event.getBestFoundValue()));
+		line.append(", \"time\": ").append(String.format(Locale.ROOT, "%.5f", event.getTime()));
+		line.append(", \"flips\": ").append(event.getNumberOfFlips());
+		if (this.includeSolutions && event.getSolution() != null) {
+			line.append(", \"solution\": ").append(event.getSolution());
+		}
+		line.append("}\n");
+		try {
+			this.output.write(line.toString());
+			this.output.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package sat.metaheuristics;
+
+import java.util.Locale;
+
+public class Metrics {
+	// This class measures where a run of a genetic algorithm spends its time.
+	// The time between two laps is added to the phase passed to the second one,
+	// and the fitness evaluations are counted with the clauses they visit
+	// (all of them for a full evaluation, those of the changed letters otherwise).
+	// Everything is recorded on the thread running the algorithm.
+	// When the metrics are disabled, every method returns immediately.
+	public static final int INITIALIZATION = 0;
+	public static final int SELECTION = 1;
+	public static final int CROSSOVER = 2;
+	public static final int MUTATION = 3;
+	public static final int HEURISTIC = 4;
+	public static final int EVALUATION = 5;
+	public static final int REPLACEMENT = 6;
+	public static final int MIGRATION = 7;
+	private static final String[] PHASES = {
+		"initialization", "selection", "crossover", "mutation", "heuristic", "evaluation", "replacement", "migration"
+	};
+
+	private boolean enabled;
+	private long[] phaseNanos = new long[PHASES.length];
+	private long lapStart;
+
+	private long numberOfFitnessEvaluations;
+	private long numberOfClauseEvaluations;
+	private long numberOfHeuristicInvocations;
+
+	public Metrics(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void startLap() {
+		if (this.enabled) {
+			this.lapStart = System.nanoTime();
+		}
+	}
+
+	public void lap(int phase) {
+		// Add the time since the previous lap to the phase.
+		if (!this.enabled) {
+			return;
+		}
+		long now = System.nanoTime();
+		this.phaseNanos[phase] += now - this.lapStart;
+		this.lapStart = now;
+	}
+
+	void countEvaluation(GAIndividual individual) {
+		// Count the evaluation of the individual, if it isn't up to date already.
+		if (!this.enabled || individual.isEvaluated()) {
+			return;
+		}
+		this.numberOfFitnessEvaluations++;
+		this.numberOfClauseEvaluations += individual.getEvaluationCost();
+	}
+
+	void countHeuristicInvocations(int numberOfInvocations) {
+		if (this.enabled) {
+			this.numberOfHeuristicInvocations += numberOfInvocations;
+		}
+	}
+
+	public void add(Metrics other) {
+		// Accumulate the metrics of another run, such as an island's.
+		for (int p = 0; p < PHASES.length; p++) {
+			this.phaseNanos[p] += other.phaseNanos[p];
+		}
+		this.numberOfFitnessEvaluations += other.numberOfFitnessEvaluations;
+		this.numberOfClauseEvaluations += other.numberOfClauseEvaluations;
+		this.numberOfHeuristicInvocations += other.numberOfHeuristicInvocations;
+	}
+
+	public long getPhaseNanos(int phase) {
+		return this.phaseNanos[phase];
+	}
+
+	public long getNumberOfFitnessEvaluations() {
+		return this.numberOfFitnessEvaluations;
+	}
+
+	public long getNumberOfClauseEvaluations() {
+		return this.numberOfClauseEvaluations;
+	}
+
+	public long getNumberOfHeuristicInvocations() {
+		return this.numberOfHeuristicInvocations;
+	}
+
+	private static String rate(long count, double duration) {
+		return String.format(Locale.ROOT, "%.1f", duration > 0? count / duration : 0.0);
+	}
+
+	public String toJson(int iteration, double duration, long numberOfFlips) {
+		// A single line of JSON. The rates are per second of the given duration.
+		StringBuilder json = new StringBuilder("{\"iteration\": ").append(iteration);
+		json.append(", \"duration\": ").append(String.format(Locale.ROOT, "%.5f", duration));
+		json.append(", \"phaseNanos\": {");
+		for (int p = 0; p < PHASES.length; p++) {
+			if (p > 0) {
+				json.append(", ");
+			}
+			json.append('"').append(PHASES[p]).append("\": ").append(this.phaseNanos[p]);
+		}
+		json.append("}, \"flips\": ").append(numberOfFlips);
+		json.append(", \"fitnessEvaluations\": ").append(this.numberOfFitnessEvaluations);
+		json.append(", \"clauseEvaluations\": ").append(this.numberOfClauseEvaluations);
+		json.append(", \"heuristicInvocations\": ").append(this.numberOfHeuristicInvocations);
+		json.append(", \"flipsPerSecond\": ").append(rate(numberOfFlips, duration));
+		json.append(", \"evaluationsPerSecond\": ").append(rate(this.numberOfFitnessEvaluations, duration));
+		return json.append('}').toString();
+	}
+
+}
@@ -1,39 +1,70 @@
 package sat.metaheuristics;
-import sat.util.Randomizer;
+
+import sat.Assignment;
 
 public class Placebo extends GeneticAlgorithm {
+	// An individual can be chosen several times, so the new population
+	// is copied into individuals of its own, and the two arrays are swapped.
+	private GAIndividual[] nextPopulation;
+	
 	public Placebo(int populationSize, int numberOfCrossovers, int maximalNumberOfIterations) {
 		super(populationSize, 0, 0, numberOfCrossovers, maximalNumberOfIterations);
 	}
 	
+	@Override
+	protected void prepare() {
+		super.prepare();
+		this.nextPopulation = new GAIndividual[this.populationSize];
+		for (int i = 0; i < this.nextPopulation.length; i++) {
+			this.nextPopulation[i] = new GAIndividual(this.formula);
+			this.nextPopulation[i].setSolution(new Assignment(this.formula.getNumberOfLetters()));
+		}
+	}
+	
 	@Override
 	protected void iteration(int i) {
 		this.currentIteration = i;
+		this.random.split(this.generationRandom);
+		GenerationEvent event = GenerationEvent.begin(this.population);
+		this.metrics.startLap();
 		// Randomly mutate the current population.
-		GAIndividual[] forMutation = new GAIndividual[this.numberOfCrossovers];
+		GAIndividual[] forMutation = this.children;
 		for (int j = 0; j < this.numberOfCrossovers; j++) {
-			int k = Randomizer.getInt(forMutation.length);
-			forMutation[j] = this.population[k].clone();
+			int k = this.generationRandom.getInt(forMutation.length);
+			forMutation[j].copyFrom(this.population[k]);
 		}
+		this.metrics.lap(Metrics.SELECTION);
 		for (GAIndividual individual: forMutation) {
-			if (Randomizer.getDouble() < Randomizer.getDouble()) {
-				individual.mutate(Randomizer.getDouble());
+			if (this.generationRandom.getDouble() < this.generationRandom.getDouble()) {
+				individual.mutate(this.generationRandom.getDouble(), this.generationRandom);
 			}
 		}
+		this.metrics.lap(Metrics.MUTATION);
 		// Apply heuristic.
 		this.applyHeuristic(forMutation);
+		this.metrics.lap(Metrics.HEURISTIC);
 		this.evaluate(forMutation);
+		this.metrics.lap(Metrics.EVALUATION);
+		if (event != null) {
+			event.countImprovedChildren(forMutation);
+		}
 		
 		// Randomly choose the individuals to get into the new population.
-		GAIndividual[] newPopulation = new GAIndividual[this.populationSize];
+		GAIndividual[] newPopulation = this.nextPopulation;
 		for (int j = 0; j < this.populationSize; j++) {
-			int k = Randomizer.getInt(this.populationSize + this.numberOfCrossovers);
+			int k = this.generationRandom.getInt(this.populationSize + this.numberOfCrossovers);
 			if (k < this.populationSize) {
-				newPopulation[j] = this.population[k].clone();
+				newPopulation[j].copyFrom(this.population[k]);
 			} else {
-				newPopulation[j] = forMutation[k - this.populationSize].clone();
+				newPopulation[j].copyFrom(forMutation[k - this.populationSize]);
 			}
 		}
+		this.nextPopulation = this.population;
+		this.population = newPopulation;
+		this.metrics.lap(Metrics.REPLACEMENT);
+		if (event != null) {
+			event.end(i, this.population);
+		}
 	}
 	
 	@Override
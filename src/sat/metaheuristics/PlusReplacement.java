@@ -0,0 +1,26 @@
+package sat.metaheuristics;
+
+public class PlusReplacement extends ReplacementPolicy {
+	// The (mu + lambda) strategy: the best individuals among the population
+	// and the children together form the next population.
+
+	@Override
+	public void replace(GAIndividual[] population, GAIndividual[] children, Ranking ranking) {
+		ranking.clear();
+		ranking.add(population);
+		ranking.add(children);
+		ranking.selectBest(population.length);
+		for (int i = 0; i < population.length; i++) {
+			population[i] = ranking.get(i);
+		}
+		for (int i = 0; i < children.length; i++) {
+			children[i] = ranking.get(population.length + i);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Plus";
+	}
+
+}
@@ -0,0 +1,225 @@
+package sat.metaheuristics;
+
+import java.util.List;
+
+import sat.Formula;
+import sat.util.CancellationToken;
+
+public class Portfolio extends GeneticAlgorithm {
+	// This class runs several configured algorithms concurrently on the same formula,
+	// each on its own thread. The first one to satisfy the formula cancels the others,
+	// which stop at their next generation or heuristic step. If none satisfies it,
+	// the result is that of the algorithm with the best found solution.
+	private List<GeneticAlgorithm> members;
+	private GeneticAlgorithm winner;
+	// The best value among the new best found solutions forwarded from the members.
+	private double publishedBestValue;
+
+	public Portfolio(List<GeneticAlgorithm> members) {
+		super(0, 0, 0, 0, 0);
+		this.members = members;
+	}
+
+	@Override
+	public void solve(Formula formula, boolean verbose) {
+		this.formula = formula;
+		this.prepare();
+		this.startTime = System.nanoTime();
+		this.winner = null;
+		this.startProgress(verbose);
+		// The members report their new best found solutions to the portfolio,
+		// which publishes those better than all the previous ones.
+		this.publishedBestValue = -1;
+		ProgressListener forwarder = new ProgressListener() {
+			@Override
+			public void newBestFound(ProgressEvent event) {
+				Portfolio.this.forward(event);
+			}
+		};
+		if (this.progress != null) {
+			for (GeneticAlgorithm member : this.members) {
+				member.addProgressListener(forwarder);
+			}
+		}
+		try {
+			this.runMembers(formula);
+		} finally {
+			for (GeneticAlgorithm member : this.members) {
+				member.removeProgressListener(forwarder);
+			}
+			this.endProgress();
+		}
+	}
+
+	private void runMembers(Formula formula) {
+		// The members are cancelled by the winner or from outside the portfolio.
+		CancellationToken memberToken = new CancellationToken();
+		CancellationToken outerToken = this.cancellationToken;
+
+		Thread[] threads = new Thread[this.members.size()];
+		Throwable[] failures = new Throwable[this.members.size()];
+		for (int k = 0; k < this.members.size(); k++) {
+			GeneticAlgorithm member = this.members.get(k);
+			member.setSeed(this.random.getLong());
+			member.setCancellationToken(memberToken);
+			int index = k;
+			threads[k] = new Thread(() -> {
+				try {
+					member.solve(formula, false);
+					if (member.getBestFoundValue() >= 1.0) {
+						this.declareWinner(member, memberToken);
+					}
+				} catch (Throwable e) {
+					failures[index] = e;
+					memberToken.cancel();
+				}
+			}, "portfolio-" + k);
+			threads[k].start();
+		}
+		for (Thread thread : threads) {
+			try {
+				while (thread.isAlive()) {
+					thread.join(100);
+					if (outerToken != null && outerToken.isCancelled()) {
+						memberToken.cancel();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				memberToken.cancel();
+			}
+		}
+		for (Throwable failure : failures) {
+			if (failure != null) {
+				throw new RuntimeException("A member of the portfolio failed.", failure);
+			}
+		}
+
+		// Without a winner, report the member with the best found solution.
+		GeneticAlgorithm best = this.winner;
+		if (best == null) {
+			for (GeneticAlgorithm member : this.members) {
+				if (best == null || member.getBestFoundValue() > best.getBestFoundValue()) {
+					best = member;
+				}
+			}
+		}
+		this.bestFoundValue = best.bestFoundValue;
+		this.bestFoundSolution = best.bestFoundSolution;
+		this.firstIterationOfTheBestFound = best.firstIterationOfTheBestFound;
+		this.timeOfTheBestFoundSolutuon = best.timeOfTheBestFoundSolutuon;
+		this.numberOfPerformedIterations = best.numberOfPerformedIterations;
+		this.stoppingCriterion = best.stoppingCriterion;
+		if (this.winner == null) {
+			this.winner = best;
+		}
+		this.endTime = System.nanoTime();
+	}
+
+	private synchronized void forward(ProgressEvent event) {
+		// Called on the members' dispatchers, possibly after the portfolio terminated.
+		if (this.progress == null || event.getBestFoundValue() <= this.publishedBestValue) {
+			return;
+		}
+		this.publishedBestValue = event.getBestFoundValue();
+		double time = (System.nanoTime() - this.startTime) / 1000000000.0;
+		this.progress.publish(new ProgressEvent(ProgressEvent.Kind.NEW_BEST_FOUND, event.getIteration(),
+				event.getBestFoundValue(), time, this.getNumberOfFlips(), event.getSolution()));
+		if (this.publishedBestValue >= 1.0) {
+			this.progress.publish(new ProgressEvent(ProgressEvent.Kind.SATISFIED, event.getIteration(),
+					event.getBestFoundValue(), time, this.getNumberOfFlips(), event.getSolution()));
+		}
+	}
+
+	@Override
+	protected synchronized void endProgress() {
+		super.endProgress();
+	}
+
+	private synchronized void declareWinner(GeneticAlgorithm member, CancellationToken memberToken) {
+		// Only the first member to satisfy the formula wins.
+		if (this.winner == null) {
+			this.winner = member;
+			memberToken.cancel();
+		}
+	}
+
+	public GeneticAlgorithm getWinner() {
+		return this.winner;
+	}
+
+	public static String describe(GeneticAlgorithm member) {
+		// Describe a member in the M[H] notation.
+		return member.describe() + "[" + member.heuristic + "]";
+	}
+
+	@Override
+	public long getNumberOfFlips() {
+		// The flips of all the members, including the cancelled ones.
+		long numberOfFlips = 0;
+		for (GeneticAlgorithm member : this.members) {
+			numberOfFlips += member.getNumberOfFlips();
+		}
+		return numberOfFlips;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		// The metrics of all the members, which run concurrently.
+		Metrics metrics = new Metrics(this.metricsEnabled);
+		for (GeneticAlgorithm member : this.members) {
+			metrics.add(member.getMetrics());
+		}
+		return metrics;
+	}
+
+	@Override
+	public long getNumberOfEvaluations() {
+		long numberOfEvaluations = 0;
+		for (GeneticAlgorithm member : this.members) {
+			numberOfEvaluations += member.getNumberOfEvaluations();
+		}
+		return numberOfEvaluations;
+	}
+
+	@Override
+	public long getNumberOfCacheHits() {
+		long numberOfHits = 0;
+		for (GeneticAlgorithm member : this.members) {
+			numberOfHits += member.getNumberOfCacheHits();
+		}
+		return numberOfHits;
+	}
+
+	@Override
+	public long getNumberOfCacheMisses() {
+		long numberOfMisses = 0;
+		for (GeneticAlgorithm member : this.members) {
+			numberOfMisses += member.getNumberOfCacheMisses();
+		}
+		return numberOfMisses;
+	}
+
+	@Override
+	public String describe() {
+		StringBuilder description = new StringBuilder("Portfolio[");
+		for (int k = 0; k < this.members.size(); k++) {
+			if (k > 0) {
+				description.append(", ");
+			}
+			description.append(describe(this.members.get(k)));
+		}
+		return description.append("]").toString();
+	}
+
+	@Override
+	public String toString() {
+		return this.describe();
+	}
+
+	@Override
+	public String report() {
+		return super.report() + "\nThe winning configuration: " + describe(this.winner);
+	}
+
+}
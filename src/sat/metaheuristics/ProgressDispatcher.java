@@ -0,0 +1,80 @@
+package sat.metaheuristics;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ProgressDispatcher {
+	// This class hands the progress events of a run over to its listeners.
+	// The search only offers the events to a bounded queue, which never blocks,
+	// and a thread of the dispatcher delivers them. When the queue is full,
+	// a completed generation is dropped, while the other events take the place
+	// of the oldest queued one. The thread ends after delivering TERMINATED,
+	// which may be after the run has returned, so it isn't a daemon.
+	private static final int CAPACITY = 1024;
+
+	private List<ProgressListener> listeners;
+	private ArrayBlockingQueue<ProgressEvent> queue = new ArrayBlockingQueue<>(CAPACITY);
+	private AtomicLong numberOfDroppedEvents = new AtomicLong();
+	private Thread thread;
+
+	ProgressDispatcher(List<ProgressListener> listeners, String name) {
+		this.listeners = listeners;
+		this.thread = new Thread(this::deliver, name);
+		this.thread.start();
+	}
+
+	void publish(ProgressEvent event) {
+		// Called from the threads of the search. It can be called concurrently.
+		while (!this.queue.offer(event)) {
+			if (event.getKind() == ProgressEvent.Kind.GENERATION_COMPLETED) {
+				this.numberOfDroppedEvents.incrementAndGet();
+				return;
+			}
+			if (this.queue.poll() != null) {
+				this.numberOfDroppedEvents.incrementAndGet();
+			}
+		}
+	}
+
+	long getNumberOfDroppedEvents() {
+		return this.numberOfDroppedEvents.get();
+	}
+
+	private void deliver() {
+		try {
+			ProgressEvent event;
+			do {
+				event = this.queue.take();
+				for (ProgressListener listener : this.listeners) {
+					try {
+						notify(listener, event);
+					} catch (RuntimeException e) {
+						// A failing listener doesn't stop the delivery to the others.
+						e.printStackTrace();
+					}
+				}
+			} while (event.getKind() != ProgressEvent.Kind.TERMINATED);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void notify(ProgressListener listener, ProgressEvent event) {
+		switch (event.getKind()) {
+		case GENERATION_COMPLETED:
+			listener.generationCompleted(event);
+			break;
+		case NEW_BEST_FOUND:
+			listener.newBestFound(event);
+			break;
+		case SATISFIED:
+			listener.satisfied(event);
+			break;
+		case TERMINATED:
+			listener.terminated(event);
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package sat.metaheuristics;
+
+import sat.Assignment;
+
+public class ProgressEvent {
+	// A snapshot of a run, taken when the event occurred.
+	// The solution is only given with the new best found solutions
+	// and at the end of the run, and belongs to the event.
+	public enum Kind { GENERATION_COMPLETED, NEW_BEST_FOUND, SATISFIED, TERMINATED }
+
+	private Kind kind;
+	private int iteration;
+	private double bestFoundValue;
+	private double time;
+	private long numberOfFlips;
+	private Assignment solution;
+
+	public ProgressEvent(Kind kind, int iteration, double bestFoundValue, double time, long numberOfFlips, Assignment solution) {
+		this.kind = kind;
+		this.iteration = iteration;
+		this.bestFoundValue = bestFoundValue;
+		this.time = time;
+		this.numberOfFlips = numberOfFlips;
+		this.solution = solution;
+	}
+
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	public int getIteration() {
+		return this.iteration;
+	}
+
+	public double getBestFoundValue() {
+		return this.bestFoundValue;
+	}
+
+	public double getTime() {
+		// The time of the event in seconds since the start of the run.
+		return this.time;
+	}
+
+	public long getNumberOfFlips() {
+		return this.numberOfFlips;
+	}
+
+	public Assignment getSolution() {
+		// The best found solution, or null for the completed generations.
+		return this.solution;
+	}
+
+}
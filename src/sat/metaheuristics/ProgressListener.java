@@ -0,0 +1,21 @@
+package sat.metaheuristics;
+
+public interface ProgressListener {
+	// The callbacks through which a genetic algorithm reports its progress.
+	// They are called on a thread of their own, in the order of the events,
+	// so a slow listener delays the following events but never the search.
+	// When the listeners don't keep up, some GENERATION_COMPLETED events are dropped.
+
+	default void generationCompleted(ProgressEvent event) {
+	}
+
+	default void newBestFound(ProgressEvent event) {
+	}
+
+	default void satisfied(ProgressEvent event) {
+	}
+
+	default void terminated(ProgressEvent event) {
+	}
+
+}
@@ -0,0 +1,104 @@
+package sat.metaheuristics;
+
+public class Ranking {
+	// This class selects the best individuals among a set of candidates
+	// without sorting them. The candidates' values are copied into a primitive
+	// array, and quickselect moves the k best candidates to the first k ranks
+	// in O(n) expected time. Candidates with equal values are ranked in the
+	// order in which they were added, so the selection is deterministic.
+	// The arrays are allocated once and reused by every generation.
+	private GAIndividual[] candidates;
+	private double[] values;
+	private int[] order;
+	private int size;
+
+	public Ranking(int capacity) {
+		this.candidates = new GAIndividual[capacity];
+		this.values = new double[capacity];
+		this.order = new int[capacity];
+	}
+
+	public void clear() {
+		this.size = 0;
+	}
+
+	public void add(GAIndividual candidate) {
+		this.candidates[this.size] = candidate;
+		this.values[this.size] = candidate.getValue();
+		this.order[this.size] = this.size;
+		this.size++;
+	}
+
+	public void add(GAIndividual[] candidates) {
+		for (GAIndividual candidate : candidates) {
+			this.add(candidate);
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public GAIndividual get(int rank) {
+		return this.candidates[this.order[rank]];
+	}
+
+	public void selectBest(int k) {
+		// Rearrange the ranks so that the k best candidates come first, in no particular order.
+		int left = 0;
+		int right = this.size - 1;
+		int target = k - 1;
+		if (k <= 0 || k >= this.size) {
+			return;
+		}
+		while (left < right) {
+			int pivot = this.order[this.medianOfThree(left, (left + right) >>> 1, right)];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (this.isBetter(this.order[i], pivot)) {
+					i++;
+				}
+				while (this.isBetter(pivot, this.order[j])) {
+					j--;
+				}
+				if (i <= j) {
+					int tmp = this.order[i];
+					this.order[i] = this.order[j];
+					this.order[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			// The ranks up to j are at least as good as the pivot, those from i on at most as good.
+			if (target <= j) {
+				right = j;
+			} else if (target >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private boolean isBetter(int a, int b) {
+		return this.values[a] > this.values[b] || (this.values[a] == this.values[b] && a < b);
+	}
+
+	private int medianOfThree(int a, int b, int c) {
+		int x = this.order[a];
+		int y = this.order[b];
+		int z = this.order[c];
+		if (this.isBetter(x, y)) {
+			if (this.isBetter(y, z)) {
+				return b;
+			}
+			return this.isBetter(x, z)? c : a;
+		}
+		if (this.isBetter(x, z)) {
+			return a;
+		}
+		return this.isBetter(y, z)? c : b;
+	}
+
+}
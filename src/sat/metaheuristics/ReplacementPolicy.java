@@ -0,0 +1,12 @@
+package sat.metaheuristics;
+
+public abstract class ReplacementPolicy {
+	// A replacement policy decides which of the current individuals and the
+	// evaluated children form the next population. It works in place: the
+	// population array receives the survivors, and the children array receives
+	// the individuals left out, whose objects hold the next generation's children.
+	// The policies keep no state, so one instance can be shared by several algorithms.
+
+	public abstract void replace(GAIndividual[] population, GAIndividual[] children, Ranking ranking);
+
+}
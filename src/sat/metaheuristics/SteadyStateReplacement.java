@@ -0,0 +1,30 @@
+package sat.metaheuristics;
+
+public class SteadyStateReplacement extends ReplacementPolicy {
+	// The children enter the population one by one, each replacing
+	// the worst individual in its place if the child is better.
+	// The other individuals keep their places.
+
+	@Override
+	public void replace(GAIndividual[] population, GAIndividual[] children, Ranking ranking) {
+		for (int i = 0; i < children.length; i++) {
+			int worst = 0;
+			for (int j = 1; j < population.length; j++) {
+				if (population[j].getValue() < population[worst].getValue()) {
+					worst = j;
+				}
+			}
+			if (children[i].getValue() > population[worst].getValue()) {
+				GAIndividual replaced = population[worst];
+				population[worst] = children[i];
+				children[i] = replaced;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SteadyState";
+	}
+
+}
@@ -0,0 +1,15 @@
+package sat.util;
+
+public class CancellationToken {
+	// This class lets one thread ask the searches running on other threads
+	// to stop. The searches check it at their generation and step boundaries.
+	private volatile boolean cancelled = false;
+
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+}
@@ -1,51 +1,134 @@
 package sat.util;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import javafx.util.Pair;
-
-
-public class DiscreteDistribution<T> {
-	// This class models a discrete distribution 
-	// over a set of elements of the type T, according to their weights.
-	private List<Pair<T, Double>> weightedItems;
-	private double totalSum;
-	
-	public DiscreteDistribution(List<Pair<T, Double>> weightedItems){
-		this.weightedItems = weightedItems;
-		// Calculate the total weight.
-		this.totalSum = weightedItems.stream()
-									 .mapToDouble(pair -> pair.getValue())
-									 .sum();
-		
-	}
-	
-	public DiscreteDistribution(T items[], double weights[]) {
-		// Convert the array of weights into a list of (item, weight) pairs.
-		int n = items.length;
-		this.weightedItems = new ArrayList<Pair<T, Double>>();
-		for(int i = 0; i < n; i++) {
-			T item = items[i];
-			double weight = weights[i];
-			Pair<T, Double> pair = new Pair<T, Double>(item, weight);
-			this.weightedItems.add(pair);
-		}
-		this.totalSum = weightedItems.stream()
-				 .mapToDouble(pair -> pair.getValue())
-				 .sum();
-	}
-	
-	public T draw() {
-		// Draw an item from the distribution represented by the items' weights.
-		double threshold = Randomizer.getDouble() * this.totalSum;
+import java.util.Arrays;
+
+public class DiscreteDistribution {
+	// This class models a discrete distribution over the indices 0, 1, ..., n-1,
+	// according to their weights. The weights are added one by one, after which
+	// the distribution can be drawn from in one of two ways:
+	// - directly, by scanning the cumulative weights, which is the cheapest way
+	//   for tiny distributions drawn from once or twice (such as a clause's letters),
+	// - after building the alias table (Walker's method, in Vose's formulation),
+	//   which takes O(n) once and makes every draw O(1).
+	// The distribution is rebuilt in place by reset, and the arrays only grow
+	// when more weights are added than ever before.
+	private double[] weights;
+	private int size;
+	private double totalWeight;
+
+	private boolean aliasTable;
+	private double[] probabilities;
+	private int[] aliases;
+	private int[] worklist;
+
+	public DiscreteDistribution() {
+		this(4);
+	}
+
+	public DiscreteDistribution(int capacity) {
+		this.weights = new double[Math.max(capacity, 1)];
+	}
+
+	public DiscreteDistribution(double[] weights) {
+		this(weights.length);
+		this.setWeights(weights, weights.length);
+	}
+
+	public void reset() {
+		this.size = 0;
+		this.totalWeight = 0;
+		this.aliasTable = false;
+	}
+
+	public void add(double weight) {
+		// Add the weight of the next index.
+		if (this.size == this.weights.length) {
+			this.weights = Arrays.copyOf(this.weights, 2 * this.weights.length);
+		}
+		this.weights[this.size++] = weight;
+		this.totalWeight += weight;
+		this.aliasTable = false;
+	}
+
+	public void setWeights(double[] weights, int size) {
+		// Replace the distribution with the first size weights of the array.
+		this.reset();
+		for (int i = 0; i < size; i++) {
+			this.add(weights[i]);
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public void buildAliasTable() {
+		// Split the weights, scaled to the average of 1, into n columns of height 1.
+		// Column i keeps probability[i] of its own weight and is topped up
+		// with the weight of aliases[i]. The small columns (below 1) are
+		// stacked from the front of the worklist, the large ones from its back.
+		int n = this.size;
+		if (this.probabilities == null || this.probabilities.length < n) {
+			int capacity = this.weights.length;
+			this.probabilities = new double[capacity];
+			this.aliases = new int[capacity];
+			this.worklist = new int[capacity];
+		}
+		if (this.totalWeight <= 0) {
+			// Without any weight, all the indices are equally likely.
+			Arrays.fill(this.probabilities, 0, n, 1.0);
+			this.aliasTable = true;
+			return;
+		}
+		double scale = n / this.totalWeight;
+		int small = 0;
+		int large = n;
+		for (int i = 0; i < n; i++) {
+			this.probabilities[i] = this.weights[i] * scale;
+			if (this.probabilities[i] < 1) {
+				this.worklist[small++] = i;
+			} else {
+				this.worklist[--large] = i;
+			}
+		}
+		while (small > 0 && large < n) {
+			int s = this.worklist[--small];
+			int l = this.worklist[large++];
+			this.aliases[s] = l;
+			// The large column gives away what the small one lacks.
+			this.probabilities[l] = (this.probabilities[l] + this.probabilities[s]) - 1;
+			if (this.probabilities[l] < 1) {
+				this.worklist[small++] = l;
+			} else {
+				this.worklist[--large] = l;
+			}
+		}
+		// The remaining columns are full, up to rounding errors.
+		while (large < n) {
+			this.probabilities[this.worklist[large++]] = 1;
+		}
+		while (small > 0) {
+			this.probabilities[this.worklist[--small]] = 1;
+		}
+		this.aliasTable = true;
+	}
+
+	public int draw(Randomizer random) {
+		// Draw an index from the distribution represented by the weights.
+		if (this.aliasTable) {
+			// Choose a column, then its own index or its alias with a single number.
+			double u = random.getDouble() * this.size;
+			int i = (int) u;
+			return (u - i < this.probabilities[i])? i : this.aliases[i];
+		}
+		double threshold = random.getDouble() * this.totalWeight;
 		double partialSum = 0;
-		for (int i = 0; i < this.weightedItems.size(); i++) {
-			partialSum += this.weightedItems.get(i).getValue();
+		for (int i = 0; i < this.size; i++) {
+			partialSum += this.weights[i];
 			if (partialSum > threshold) {
-				return weightedItems.get(i).getKey();
+				return i;
 			}
 		}
-		return this.weightedItems.get(weightedItems.size() - 1).getKey();
+		return this.size - 1;
 	}
 }
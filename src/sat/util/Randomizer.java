@@ -1,32 +1,108 @@
 package sat.util;
 
 import java.util.List;
-import java.util.Random;
 
 public class Randomizer {
 	// This class is responsible for raw random selections.
-	private static Random generator;
-	
-	public static Random getGenerator() {
-		return generator;
+	// It implements the SplitMix64 generator (the algorithm of java.util.SplittableRandom):
+	// the state is advanced by adding an odd gamma, and each value is obtained by mixing it.
+	// A generator can be split into a new one with a different gamma, whose stream
+	// is independent of the parent's. Generators are not thread-safe, so every
+	// thread, individual or generation uses its own, derived from the master seed
+	// in a fixed order.
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long seed;
+	private long gamma;
+
+	public Randomizer(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	public Randomizer(long seed, long gamma) {
+		// Restore a generator from its state, as returned by getSeed and getGamma.
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public long getGamma() {
+		return this.gamma;
+	}
+
+	private long nextSeed() {
+		return this.seed += this.gamma;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
 	}
 
-	public static void initialize(int seed) {
-		generator = new Random(seed);
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
 	}
-	
-	public static double getDouble() {
-		return generator.nextDouble();
+
+	private static long mixGamma(long z) {
+		// Make the gamma odd and make sure that its bits are well distributed.
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24)? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+	public Randomizer split() {
+		// Create a new generator whose stream is independent of this one.
+		return new Randomizer(mix64(this.nextSeed()), mixGamma(this.nextSeed()));
+	}
+
+	public void split(Randomizer target) {
+		// Reseed the target as split would create it, without allocating a new generator.
+		target.seed = mix64(this.nextSeed());
+		target.gamma = mixGamma(this.nextSeed());
+	}
+
+	public long getLong() {
+		return mix64(this.nextSeed());
+	}
+
+	public double getDouble() {
+		// A uniformly distributed number in [0, 1).
+		return (mix64(this.nextSeed()) >>> 11) * 0x1.0p-53;
 	}
-	
-	public static int getInt(int upper) {
-		return generator.nextInt(upper);
+
+	public int getInt(int upper) {
+		// A uniformly distributed number in [0, upper).
+		int r = mix32(this.nextSeed());
+		int m = upper - 1;
+		if ((upper & m) == 0) {
+			return r & m;
+		}
+		// Reject the values from the incomplete last interval.
+		for (int u = r >>> 1; u + m - (r = u % upper) < 0; u = mix32(this.nextSeed()) >>> 1) {
+		}
+		return r;
 	}
 
-	public static int select(List<Integer> list) {
-		int i = getInt(list.size());
+	public int select(List<Integer> list) {
+		int i = this.getInt(list.size());
 		return list.get(i);
 	}
-	
+
+	public void shuffle(int[] array) {
+		// Randomly permute the array (Fisher-Yates).
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = this.getInt(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
 
 }
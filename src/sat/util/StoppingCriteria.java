@@ -0,0 +1,138 @@
+package sat.util;
+
+public class StoppingCriteria {
+	// This class decides when a search stops before its maximal number of iterations:
+	// at a wall-clock deadline, after a number of flips or fitness evaluations,
+	// at a target fitness, or when its cancellation token is cancelled.
+	// The algorithms check all the criteria between their generations, and the
+	// heuristics check those they can in their step loops. The flips performed
+	// concurrently by other heuristic invocations are only seen between
+	// the generations, so the flip budget can be exceeded by a few steps.
+	// The first criterion found to be met is remembered until the next start.
+	public enum Criterion {
+		MAXIMAL_ITERATIONS("maximal number of iterations"),
+		SATISFIED("formula satisfied"),
+		TIME_LIMIT("time limit"),
+		FLIP_BUDGET("flip budget"),
+		EVALUATION_BUDGET("evaluation budget"),
+		TARGET_FITNESS("target fitness"),
+		CANCELLED("cancelled");
+
+		private String description;
+
+		Criterion(String description) {
+			this.description = description;
+		}
+
+		@Override
+		public String toString() {
+			return this.description;
+		}
+	}
+
+	// The limits, where 0 (or infinity for the fitness) means no limit.
+	private double timeLimit = 0;
+	private long flipBudget = 0;
+	private long evaluationBudget = 0;
+	private double targetFitness = Double.POSITIVE_INFINITY;
+
+	private CancellationToken cancellationToken;
+	private long deadline;
+	private boolean checkSteps;
+	private volatile Criterion metCriterion;
+
+	public void setTimeLimit(double seconds) {
+		this.timeLimit = seconds;
+	}
+
+	public void setFlipBudget(long flipBudget) {
+		this.flipBudget = flipBudget;
+	}
+
+	public void setEvaluationBudget(long evaluationBudget) {
+		this.evaluationBudget = evaluationBudget;
+	}
+
+	public void setTargetFitness(double targetFitness) {
+		this.targetFitness = targetFitness;
+	}
+
+	public void start(CancellationToken cancellationToken) {
+		// Start measuring the time of a new search, which can be cancelled through the token.
+		this.cancellationToken = cancellationToken;
+		this.deadline = this.timeLimit > 0? System.nanoTime() + (long) (this.timeLimit * 1000000000.0) : 0;
+		this.checkSteps = cancellationToken != null || this.timeLimit > 0 || this.flipBudget > 0 || this.targetFitness <= 1.0;
+		this.metCriterion = null;
+	}
+
+	public void resume(long startTime) {
+		// Continue the time limit of a search which started at the given System.nanoTime(),
+		// such as one restored from a checkpoint, instead of starting it over.
+		if (this.timeLimit > 0) {
+			this.deadline = startTime + (long) (this.timeLimit * 1000000000.0);
+		}
+	}
+
+	public boolean isMet(long numberOfFlips, long numberOfEvaluations, double bestFoundValue) {
+		// Check all the criteria, between the generations.
+		if (this.metCriterion != null) {
+			return true;
+		}
+		if (bestFoundValue >= this.targetFitness) {
+			return this.meet(Criterion.TARGET_FITNESS);
+		}
+		if (this.evaluationBudget > 0 && numberOfEvaluations >= this.evaluationBudget) {
+			return this.meet(Criterion.EVALUATION_BUDGET);
+		}
+		return this.checkStepCriteria(numberOfFlips);
+	}
+
+	public boolean hasStepCriteria() {
+		// Whether any criterion applies to the steps of the heuristics.
+		return this.checkSteps;
+	}
+
+	public boolean hasFlipBudget() {
+		return this.flipBudget > 0;
+	}
+
+	public boolean isMetAfterStep(long numberOfFlips, int numberOfSatisfied, int numberOfClauses) {
+		// Check the criteria which apply to a heuristic, after each of its steps.
+		if (this.metCriterion != null) {
+			return true;
+		}
+		if (numberOfSatisfied >= this.targetFitness * numberOfClauses) {
+			return this.meet(Criterion.TARGET_FITNESS);
+		}
+		return this.checkStepCriteria(numberOfFlips);
+	}
+
+	private boolean checkStepCriteria(long numberOfFlips) {
+		if (this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+			return this.meet(Criterion.CANCELLED);
+		}
+		if (this.flipBudget > 0 && numberOfFlips >= this.flipBudget) {
+			return this.meet(Criterion.FLIP_BUDGET);
+		}
+		if (this.deadline != 0 && System.nanoTime() - this.deadline >= 0) {
+			return this.meet(Criterion.TIME_LIMIT);
+		}
+		return false;
+	}
+
+	private boolean meet(Criterion criterion) {
+		// Several threads can meet a criterion at once, but the first one recorded is kept.
+		synchronized (this) {
+			if (this.metCriterion == null) {
+				this.metCriterion = criterion;
+			}
+		}
+		return true;
+	}
+
+	public Criterion getMetCriterion() {
+		// The criterion met since the start, or null.
+		return this.metCriterion;
+	}
+
+}
@@ -0,0 +1,89 @@
+package sat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DimacsReaderTest {
+
+	@TempDir
+	Path directory;
+
+	private Formula read(String contents) throws IOException {
+		Path file = this.directory.resolve("formula.cnf");
+		Files.write(file, contents.getBytes(StandardCharsets.US_ASCII));
+		return DimacsReader.read(file.toString());
+	}
+
+	@Test
+	public void clausesShareLines() throws IOException {
+		Formula formula = read("c a comment\np cnf 3 3\n1 -2 0 2 3 0\n-1\n-3 0\n");
+		assertEquals(3, formula.getNumberOfLetters());
+		assertArrayEquals(new int[][] {{1, -2}, {2, 3}, {-1, -3}}, formula.getClauses());
+	}
+
+	@Test
+	public void clausesHaveMixedLengths() throws IOException {
+		Formula formula = read("p cnf 5 3\n1 0\n-1 2 -3 4 5 0\n2 -5 0\n");
+		assertArrayEquals(new int[][] {{1}, {-1, 2, -3, 4, 5}, {2, -5}}, formula.getClauses());
+	}
+
+	@Test
+	public void compressedFileIsRead() throws IOException {
+		Path file = this.directory.resolve("formula.cnf.gz");
+		try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+			output.write("p cnf 2 2\n1 2 0\n-1 -2 0\n".getBytes(StandardCharsets.US_ASCII));
+		}
+		Formula formula = DimacsReader.read(file.toString());
+		assertArrayEquals(new int[][] {{1, 2}, {-1, -2}}, formula.getClauses());
+	}
+
+	@Test
+	public void percentSignEndsTheFormula() throws IOException {
+		Formula formula = read("p cnf 2 1\n1 2 0\n%\n0\n\n");
+		assertArrayEquals(new int[][] {{1, 2}}, formula.getClauses());
+	}
+
+	@Test
+	public void emptyClauseIsRejected() {
+		assertThrows(IOException.class, () -> read("p cnf 1 2\n1 0\n0\n"));
+		assertThrows(IOException.class, () -> read("p cnf 1 2\n1 0 0\n"));
+	}
+
+	@Test
+	public void commentFollowsClause() throws IOException {
+		Formula formula = read("p cnf 2 2\n1 2 0 c note\n-1 0\tc -2 0\n");
+		assertArrayEquals(new int[][] {{1, 2}, {-1}}, formula.getClauses());
+	}
+
+	@Test
+	public void tooLargeLiteralIsRejected() {
+		// 2^32 + 1 would wrap around to the letter 1.
+		assertThrows(IOException.class, () -> read("p cnf 1 1\n4294967297 0\n"));
+		assertThrows(IOException.class, () -> read("p cnf 1 1\n-2147483648 0\n"));
+	}
+
+	@Test
+	public void malformedProblemLineIsRejected() {
+		assertThrows(IOException.class, () -> read("p cnf x 1\n1 0\n"));
+		assertThrows(IOException.class, () -> read("p cnf 1 99999999999\n1 0\n"));
+		assertThrows(IOException.class, () -> read("p cnf 1 -1\n1 0\n"));
+	}
+
+	@Test
+	public void clausesAreNormalized() throws IOException {
+		Formula formula = read("p cnf 3 3\n1 1 2 0\n2 -2 3 0\n-3 1 -3 0\n");
+		assertArrayEquals(new int[][] {{1, 2}, {-3, 1}}, formula.getClauses());
+	}
+
+}
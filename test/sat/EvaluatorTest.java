@@ -0,0 +1,128 @@
+package sat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import sat.util.Randomizer;
+
+public class EvaluatorTest {
+	// The incremental scores are checked against a recount over the clauses
+	// as they were given, including repeated literals and tautologies.
+
+	private static boolean isSatisfied(int[] clause, Assignment solution) {
+		for (int literal : clause) {
+			if (solution.satisfies(literal)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isTautology(int[] clause) {
+		for (int literal : clause) {
+			for (int other : clause) {
+				if (other == -literal) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static int countMade(int[][] clauses, Assignment solution, int letter) {
+		// The clauses which the flip of the letter satisfies.
+		Assignment flipped = solution.copy();
+		flipped.flip(letter - 1);
+		int count = 0;
+		for (int[] clause : clauses) {
+			if (!isSatisfied(clause, solution) && isSatisfied(clause, flipped)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int countBroken(int[][] clauses, Assignment solution, int letter) {
+		// The clauses which the flip of the letter unsatisfies.
+		Assignment flipped = solution.copy();
+		flipped.flip(letter - 1);
+		int count = 0;
+		for (int[] clause : clauses) {
+			if (isSatisfied(clause, solution) && !isSatisfied(clause, flipped)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static void assertScores(int[][] clauses, Formula formula, Evaluator evaluator, Assignment solution) {
+		int numberOfSatisfied = 0;
+		for (int[] clause : clauses) {
+			if (!isTautology(clause) && isSatisfied(clause, solution)) {
+				numberOfSatisfied++;
+			}
+		}
+		assertEquals(numberOfSatisfied, evaluator.getNumberOfSatisfied());
+		assertEquals(numberOfSatisfied, formula.getNumberOfSatisfied(solution));
+		for (int letter = 1; letter <= formula.getNumberOfLetters(); letter++) {
+			assertEquals(countMade(clauses, solution, letter), evaluator.getMake(letter), "make of " + letter);
+			assertEquals(countBroken(clauses, solution, letter), evaluator.getBreak(letter), "break of " + letter);
+		}
+	}
+
+	private static int[][] randomClauses(int numberOfLetters, int numberOfClauses, Randomizer random) {
+		// Short clauses over few letters, so that many repeat a letter.
+		int[][] clauses = new int[numberOfClauses][];
+		for (int i = 0; i < numberOfClauses; i++) {
+			clauses[i] = new int[1 + random.getInt(4)];
+			for (int k = 0; k < clauses[i].length; k++) {
+				int letter = 1 + random.getInt(numberOfLetters);
+				clauses[i][k] = random.getDouble() < 0.5? letter : -letter;
+			}
+		}
+		return clauses;
+	}
+
+	@Test
+	public void repeatedLiteralIsCountedOnce() {
+		Formula formula = new Formula(2, 1, new int[][] {{1, 1, 2}});
+		Evaluator evaluator = formula.createEvaluator(new Assignment(new int[] {1, 0}));
+		assertEquals(1, evaluator.getBreak(1));
+		assertEquals(1, formula.calculateBreak(new Assignment(new int[] {1, 0}), 1));
+
+		formula = new Formula(2, 1, new int[][] {{2, 2, 1}});
+		evaluator = formula.createEvaluator(new Assignment(2));
+		assertEquals(1, evaluator.getMake(2));
+		assertEquals(1, formula.calculateMake(new Assignment(2), 2));
+	}
+
+	@Test
+	public void tautologyIsDropped() {
+		Formula formula = new Formula(2, 2, new int[][] {{1, -1}, {2}});
+		assertEquals(1, formula.getNumberOfClauses());
+		Evaluator evaluator = formula.createEvaluator(new Assignment(new int[] {1, 1}));
+		assertEquals(0, evaluator.getBreak(1));
+		assertEquals(1, evaluator.getBreak(2));
+	}
+
+	@Test
+	public void scoresMatchRecountAfterRandomFlips() {
+		Randomizer random = new Randomizer(42);
+		for (int round = 0; round < 50; round++) {
+			int numberOfLetters = 2 + random.getInt(6);
+			int[][] clauses = randomClauses(numberOfLetters, 5 + random.getInt(20), random);
+			Formula formula = new Formula(numberOfLetters, clauses.length, clauses);
+			Assignment solution = formula.getRandomAssignment(random);
+			Evaluator evaluator = formula.createEvaluator(solution);
+			assertScores(clauses, formula, evaluator, solution);
+			for (int flip = 0; flip < 30; flip++) {
+				int letter = 1 + random.getInt(numberOfLetters);
+				evaluator.flip(letter);
+				solution.flip(letter - 1);
+				assertScores(clauses, formula, evaluator, solution);
+			}
+		}
+	}
+
+}
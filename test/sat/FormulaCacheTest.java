@@ -0,0 +1,64 @@
+package sat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FormulaCacheTest {
+	private static final int[][] CLAUSES = {{1, -2}, {2, 3}, {-1, -3}};
+	private static final String CONTENTS = "p cnf 3 3\n1 -2 0\n2 3 0\n-1 -3 0\n";
+
+	@TempDir
+	Path directory;
+
+	private Path writeFormula() throws IOException {
+		Path file = this.directory.resolve("formula.cnf");
+		Files.write(file, CONTENTS.getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+	@Test
+	public void cachedFormulaIsLoaded() throws IOException {
+		Path file = this.writeFormula();
+		assertArrayEquals(CLAUSES, FormulaCache.read(file.toString(), null).getClauses());
+		assertTrue(Files.exists(Path.of(file + ".satcache")));
+		assertArrayEquals(CLAUSES, FormulaCache.read(file.toString(), null).getClauses());
+	}
+
+	@Test
+	public void damagedPayloadIsRebuilt() throws IOException {
+		Path file = this.writeFormula();
+		FormulaCache.read(file.toString(), null);
+		Path cache = Path.of(file + ".satcache");
+		byte[] original = Files.readAllBytes(cache);
+		// Corrupt an occurrence offset, behind the header.
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {0x7f, 0x7f, 0x7f, 0x7f}), original.length - 4 * 14);
+		}
+		assertArrayEquals(CLAUSES, FormulaCache.read(file.toString(), null).getClauses());
+		assertTrue(Arrays.equals(original, Files.readAllBytes(cache)));
+	}
+
+	@Test
+	public void unreadableCacheIsRebuilt() throws IOException {
+		Path file = this.writeFormula();
+		Path cache = Path.of(file + ".satcache");
+		byte[] garbage = new byte[100];
+		Arrays.fill(garbage, (byte) 0x5a);
+		Files.write(cache, garbage);
+		assertArrayEquals(CLAUSES, FormulaCache.read(file.toString(), null).getClauses());
+		assertArrayEquals(CLAUSES, FormulaCache.read(file.toString(), null).getClauses());
+	}
+
+}
@@ -0,0 +1,74 @@
+package sat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sat.metaheuristics.GeneticAlgorithm;
+import sat.util.Randomizer;
+
+public class FormulaTest {
+	// The scores computed from the occurrence lists are checked against
+	// a recount after the flip, on clauses with repeated literals.
+
+	private static int[][] randomClauses(int numberOfLetters, int numberOfClauses, Randomizer random) {
+		int[][] clauses = new int[numberOfClauses][];
+		for (int i = 0; i < numberOfClauses; i++) {
+			clauses[i] = new int[1 + random.getInt(4)];
+			for (int k = 0; k < clauses[i].length; k++) {
+				int letter = 1 + random.getInt(numberOfLetters);
+				clauses[i][k] = random.getDouble() < 0.5? letter : -letter;
+			}
+		}
+		return clauses;
+	}
+
+	@Test
+	public void repeatedLiteralIsCountedOnce() {
+		Formula formula = new Formula(2, 1, new int[][] {{1, 1, 2}});
+		Assignment solution = new Assignment(new int[] {1, 0});
+		assertEquals(1, formula.calculateBreak(solution, 1));
+		assertEquals(0, formula.calculateMake(solution, 1));
+		assertEquals(-1, formula.calculateGain(solution, 1));
+
+		formula = new Formula(2, 1, new int[][] {{-1, -1, 2}});
+		assertEquals(1, formula.calculateMake(solution, 1));
+		assertEquals(1, formula.calculateMake(solution, 2));
+	}
+
+	@Test
+	public void formulaOfTautologiesIsSatisfied() {
+		Formula formula = new Formula(2, 2, new int[][] {{1, -1}, {-2, 1, 2}});
+		assertEquals(0, formula.getNumberOfClauses());
+		assertEquals(1.0, formula.getPercentageOfSatisfied(new Assignment(2)));
+		assertTrue(formula.isSatisfiedBy(new Assignment(2)));
+
+		GeneticAlgorithm alg = new GeneticAlgorithm(4, 0.5, 0.1, 2, 100);
+		alg.setSeed(1);
+		alg.solve(formula);
+		assertEquals(1.0, alg.getBestFoundValue());
+		assertEquals(0, alg.getNumberOfPerformedIterations());
+	}
+
+	@Test
+	public void scoresMatchRecount() {
+		Randomizer random = new Randomizer(7);
+		for (int round = 0; round < 200; round++) {
+			int numberOfLetters = 2 + random.getInt(6);
+			int[][] clauses = randomClauses(numberOfLetters, 5 + random.getInt(20), random);
+			Formula formula = new Formula(numberOfLetters, clauses.length, clauses);
+			Assignment solution = formula.getRandomAssignment(random);
+			int numberOfSatisfied = formula.getNumberOfSatisfied(solution);
+			for (int letter = 1; letter <= numberOfLetters; letter++) {
+				Assignment flipped = solution.copy();
+				flipped.flip(letter - 1);
+				int gain = formula.getNumberOfSatisfied(flipped) - numberOfSatisfied;
+				assertEquals(gain, formula.calculateGain(solution, letter));
+				assertEquals(formula.getNumberOfSatisfied(flipped),
+						formula.getNumberOfSatisfiedAfterFlips(flipped, numberOfSatisfied, new int[] {letter - 1}, 1));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package sat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sat.util.Randomizer;
+
+public class PreprocessorTest {
+	// The reduced formulas are solved by brute force, and their solutions
+	// are checked against the original formulas after the reconstruction.
+
+	private static Preprocessor createPreprocessor(boolean variableElimination) {
+		Preprocessor preprocessor = new Preprocessor();
+		preprocessor.setVariableElimination(variableElimination);
+		return preprocessor;
+	}
+
+	private static Assignment solve(Formula formula) {
+		// A satisfying solution, or null if there is none.
+		int n = formula.getNumberOfLetters();
+		for (int bits = 0; bits < 1 << n; bits++) {
+			Assignment solution = new Assignment(n);
+			for (int i = 0; i < n; i++) {
+				solution.set(i, (bits >> i) & 1);
+			}
+			if (formula.isSatisfiedBy(solution)) {
+				return solution;
+			}
+		}
+		return null;
+	}
+
+	private static Formula randomFormula(int numberOfLetters, int numberOfClauses, Randomizer random) {
+		int[][] clauses = new int[numberOfClauses][];
+		for (int i = 0; i < numberOfClauses; i++) {
+			clauses[i] = new int[1 + random.getInt(3)];
+			for (int k = 0; k < clauses[i].length; k++) {
+				int letter = 1 + random.getInt(numberOfLetters);
+				clauses[i][k] = random.getDouble() < 0.5? letter : -letter;
+			}
+		}
+		return new Formula(numberOfLetters, numberOfClauses, clauses);
+	}
+
+	@Test
+	public void conflictingUnitsAreUnsatisfiable() {
+		Preprocessor preprocessor = createPreprocessor(false);
+		assertNull(preprocessor.preprocess(new Formula(2, 3, new int[][] {{1}, {-1, 2}, {-2}})));
+		assertTrue(preprocessor.isUnsatisfiable());
+	}
+
+	@Test
+	public void eliminationFindsUnsatisfiability() {
+		// No unit or pure letter, so only the resolvents reveal the conflict.
+		Formula formula = new Formula(2, 4, new int[][] {{1, 2}, {-1, 2}, {1, -2}, {-1, -2}});
+		Preprocessor preprocessor = createPreprocessor(true);
+		assertNull(preprocessor.preprocess(formula));
+		assertTrue(preprocessor.isUnsatisfiable());
+	}
+
+	@Test
+	public void eliminatedLettersAreRestoredInReverseOrder() {
+		// 1 <-> 2 <-> 3, where 3 is needed by the last two clauses. The letters are
+		// eliminated in the order 1, 2, 3, and the value of 3 decides those of 2 and 1.
+		Formula formula = new Formula(4, 6, new int[][] {{1, -2}, {-1, 2}, {2, -3}, {-2, 3}, {3, 4}, {3, -4}});
+		Preprocessor preprocessor = createPreprocessor(true);
+		Formula reduced = preprocessor.preprocess(formula);
+		assertNotNull(reduced);
+		assertEquals(0, reduced.getNumberOfLetters());
+		Assignment solution = preprocessor.reconstruct(new Assignment(0));
+		assertTrue(formula.isSatisfiedBy(solution));
+		assertArrayEquals(new int[] {1, 1, 1, 0}, solution.toArray());
+	}
+
+	@Test
+	public void reconstructedSolutionsSatisfyTheOriginalFormula() {
+		Randomizer random = new Randomizer(3);
+		for (int round = 0; round < 300; round++) {
+			int numberOfLetters = 3 + random.getInt(8);
+			Formula formula = randomFormula(numberOfLetters, numberOfLetters * (2 + random.getInt(4)), random);
+			boolean satisfiable = solve(formula) != null;
+			for (boolean variableElimination : new boolean[] {false, true}) {
+				Preprocessor preprocessor = createPreprocessor(variableElimination);
+				Formula reduced = preprocessor.preprocess(formula);
+				if (reduced == null) {
+					assertFalse(satisfiable);
+					continue;
+				}
+				Assignment solution = solve(reduced);
+				assertEquals(satisfiable, solution != null);
+				if (solution != null) {
+					assertTrue(formula.isSatisfiedBy(preprocessor.reconstruct(solution)));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package sat.metaheuristics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sat.Formula;
+import sat.heuristics.WalkSAT;
+import sat.util.Randomizer;
+import sat.util.StoppingCriteria;
+
+public class CheckpointTest {
+	// A random formula with ten clauses per letter, which is unsatisfiable,
+	// so that the runs perform all their generations.
+	private static final Formula FORMULA = randomFormula(30, 300, new Randomizer(5));
+
+	@TempDir
+	Path directory;
+
+	private static Formula randomFormula(int numberOfLetters, int numberOfClauses, Randomizer random) {
+		int[][] clauses = new int[numberOfClauses][3];
+		for (int[] clause : clauses) {
+			for (int k = 0; k < clause.length; k++) {
+				int letter = 1 + random.getInt(numberOfLetters);
+				clause[k] = random.getDouble() < 0.5? letter : -letter;
+			}
+		}
+		return new Formula(numberOfLetters, numberOfClauses, clauses);
+	}
+
+	private static class InterruptedAlgorithm extends GeneticAlgorithm {
+		// Fails after the given iteration, as if the process were killed,
+		// having run for the given number of seconds.
+		private int lastIteration;
+		private double seconds;
+
+		InterruptedAlgorithm(int lastIteration, double seconds) {
+			super(20, 0.5, 0.05, 10, 30);
+			this.lastIteration = lastIteration;
+			this.seconds = seconds;
+		}
+
+		@Override
+		protected void iteration(int i) {
+			if (i > this.lastIteration) {
+				throw new IllegalStateException("interrupted");
+			}
+			super.iteration(i);
+			if (i == this.lastIteration) {
+				this.startTime -= (long) (this.seconds * 1000000000.0);
+			}
+		}
+	}
+
+	private static <T extends GeneticAlgorithm> T configure(T alg) {
+		alg.setHeuristic(new WalkSAT(20, 0.5));
+		alg.setImprovementCacheSize(64);
+		alg.setSeed(11);
+		return alg;
+	}
+
+	private GeneticAlgorithm interrupt(Path checkpoint, double seconds) {
+		GeneticAlgorithm interrupted = configure(new InterruptedAlgorithm(15, seconds));
+		interrupted.setCheckpointPath(checkpoint);
+		interrupted.setCheckpointInterval(5);
+		assertThrows(IllegalStateException.class, () -> interrupted.solve(FORMULA));
+		return interrupted;
+	}
+
+	@Test
+	public void resumedRunMatchesUninterruptedRun() {
+		GeneticAlgorithm uninterrupted = configure(new GeneticAlgorithm(20, 0.5, 0.05, 10, 30));
+		uninterrupted.solve(FORMULA);
+
+		Path checkpoint = this.directory.resolve("run.checkpoint");
+		this.interrupt(checkpoint, 0);
+		GeneticAlgorithm resumed = configure(new GeneticAlgorithm(20, 0.5, 0.05, 10, 30));
+		resumed.setCheckpointPath(checkpoint);
+		resumed.setCheckpointInterval(5);
+		resumed.setResume(true);
+		resumed.solve(FORMULA);
+
+		assertEquals(uninterrupted.getBestFoundSolution(), resumed.getBestFoundSolution());
+		assertEquals(uninterrupted.getBestFoundValue(), resumed.getBestFoundValue());
+		assertEquals(uninterrupted.getFirstIterationOfTheBestFound(), resumed.getFirstIterationOfTheBestFound());
+		assertEquals(uninterrupted.getNumberOfPerformedIterations(), resumed.getNumberOfPerformedIterations());
+		assertEquals(uninterrupted.getNumberOfEvaluations(), resumed.getNumberOfEvaluations());
+		assertEquals(uninterrupted.getNumberOfFlips(), resumed.getNumberOfFlips());
+	}
+
+	@Test
+	public void resumedRunKeepsItsTimeLimit() {
+		// The run had used up its minute before the checkpoint.
+		Path checkpoint = this.directory.resolve("run.checkpoint");
+		this.interrupt(checkpoint, 61);
+		GeneticAlgorithm resumed = configure(new GeneticAlgorithm(20, 0.5, 0.05, 10, 30));
+		StoppingCriteria criteria = new StoppingCriteria();
+		criteria.setTimeLimit(60);
+		resumed.setStoppingCriteria(criteria);
+		resumed.setCheckpointPath(checkpoint);
+		resumed.setResume(true);
+		resumed.solve(FORMULA);
+
+		assertEquals(StoppingCriteria.Criterion.TIME_LIMIT, resumed.getStoppingCriterion());
+		assertEquals(15, resumed.getNumberOfPerformedIterations());
+	}
+
+}
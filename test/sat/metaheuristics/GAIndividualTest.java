@@ -0,0 +1,40 @@
+package sat.metaheuristics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+import sat.Formula;
+import sat.util.Randomizer;
+
+public class GAIndividualTest {
+	// A formula where no solution satisfies more than four of the five clauses.
+	private static final Formula FORMULA = new Formula(3, 5, new int[][] {{1, 2}, {-1, 2}, {1, -2}, {-1, -2, 3}, {-3}});
+
+	@Test
+	public void childOfIdenticalParentsKeepsTheirValue() {
+		GAIndividual parent = new GAIndividual(FORMULA, new int[] {1, 1, 0});
+		parent.evaluate();
+		GAIndividual child = parent.crossover(parent.clone(), new Randomizer(1));
+		assertEquals(parent.getValue(), child.getValue());
+		// The child is counted as an evaluation, although it needs no work.
+		assertFalse(child.isEvaluated());
+		child.evaluate();
+		assertEquals(4, child.getNumberOfSatisfied());
+		assertEquals(0.8, child.getValue());
+	}
+
+	@Test
+	public void everyChildIsEvaluated() {
+		// Without a heuristic, the population converges and many children equal a parent.
+		GeneticAlgorithm alg = new GeneticAlgorithm(10, 0.5, 0.05, 6, 40);
+		alg.setSeed(2);
+		alg.solve(FORMULA);
+		assertEquals(10 + 6 * 40, alg.getNumberOfEvaluations());
+		for (GAIndividual individual : alg.population) {
+			assertEquals(FORMULA.getNumberOfSatisfied(individual.getSolution()) / 5.0, individual.getValue());
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package sat.metaheuristics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import sat.Formula;
+import sat.heuristics.Heuristic;
+import sat.heuristics.WalkSAT;
+
+public class IslandModelTest {
+	// An unsatisfiable formula, so that the islands run all their generations.
+	private static final Formula FORMULA = new Formula(3, 4, new int[][] {{1, 2}, {-1, 2}, {1, -2}, {-1, -2}});
+
+	private static IslandModel createModel(int numberOfIslands, int maximalNumberOfIterations) {
+		IslandModel model = new IslandModel(6, 0.5, 0.1, 2, maximalNumberOfIterations,
+				numberOfIslands, 3, 1, IslandModel.Topology.RING);
+		model.setSeed(1);
+		return model;
+	}
+
+	@Test
+	public void everyIslandNeedsItsOwnHeuristic() {
+		IslandModel model = createModel(3, 10);
+		assertThrows(IllegalArgumentException.class, () -> model.setHeuristics(new Heuristic[] {new WalkSAT(10, 0.5)}));
+	}
+
+	@Test
+	public void flipsOfEveryIslandAreCounted() {
+		IslandModel model = createModel(3, 10);
+		Heuristic[] heuristics = new Heuristic[3];
+		for (int k = 0; k < heuristics.length; k++) {
+			heuristics[k] = new WalkSAT(10, 0.5);
+		}
+		model.setHeuristics(heuristics);
+		model.solve(FORMULA);
+		long numberOfFlips = 0;
+		for (Heuristic heuristic : heuristics) {
+			assertTrue(heuristic.getNumberOfFlips() > 0);
+			numberOfFlips += heuristic.getNumberOfFlips();
+		}
+		assertEquals(numberOfFlips, model.getNumberOfFlips());
+	}
+
+	@Test
+	public void completedGenerationsArePublished() throws InterruptedException {
+		IslandModel model = createModel(3, 20);
+		List<Integer> iterations = new ArrayList<>();
+		CountDownLatch terminated = new CountDownLatch(1);
+		model.addProgressListener(new ProgressListener() {
+			@Override
+			public void generationCompleted(ProgressEvent event) {
+				iterations.add(event.getIteration());
+			}
+
+			@Override
+			public void terminated(ProgressEvent event) {
+				terminated.countDown();
+			}
+		});
+		model.solve(FORMULA);
+		assertTrue(terminated.await(10, TimeUnit.SECONDS));
+		assertEquals(0, model.getNumberOfDroppedProgressEvents());
+		// Every generation once, in order, up to those of the furthest island.
+		assertEquals(model.getNumberOfPerformedIterations(), iterations.size());
+		for (int i = 0; i < iterations.size(); i++) {
+			assertEquals(i + 1, iterations.get(i));
+		}
+	}
+
+}